@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+# Seeds a reproducible synthetic dataset into the in-memory H2 database and runs a mixed read/write
+# workload against the core UserController endpoints, writing JSON results to target/load-results.
+#
+# Usage: scripts/load-test.sh [baseline.json]
+# Environment: USERS, SEED, CONCURRENCY, WARMUP_SECONDS, DURATION_SECONDS, RANGE_DAYS, MIX, APP_ARGS
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+MVN="${MVN:-mvn}"
+BASELINE="${1:-}"
+if [[ -n "$BASELINE" ]]; then
+    BASELINE="$(cd "$(dirname "$BASELINE")" && pwd)/$(basename "$BASELINE")"
+fi
+
+"$MVN" -B -q -f "$ROOT/pom.xml" -Pbenchmark test \
+    -Dtest=MixedWorkloadLoadTest \
+    -Dbenchmark.users="${USERS:-200000}" \
+    -Dbenchmark.seed="${SEED:-42}" \
+    -Dbenchmark.concurrency="${CONCURRENCY:-32}" \
+    -Dbenchmark.warmup-seconds="${WARMUP_SECONDS:-10}" \
+    -Dbenchmark.seconds="${DURATION_SECONDS:-30}" \
+    -Dbenchmark.range-days="${RANGE_DAYS:-30}" \
+    -Dbenchmark.mix="${MIX:-find-by-range=60,create=10,update=10,update-email=10,delete=10}" \
+    -Dbenchmark.app-args="${APP_ARGS:---user.admission.enabled=false}" \
+    -Dbenchmark.results-dir="$ROOT/target/load-results" \
+    -Dbenchmark.baseline="$BASELINE" \
+    | grep -v -E '^([0-9]{4}-[0-9]{2}-[0-9]{2}T| java\.|\s+at )'
+
+ls -t "$ROOT"/target/load-results/mixed-workload-*.json | head -n 1
@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Compares cold-start time of the default jar, the AOT-processed startup profile,
+# and the startup profile backed by an AppCDS archive.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS="${1:-5}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/startup-benchmark"
+MVN="${MVN:-mvn}"
+MAIN_CLASS=clear.solutions.demo.DemoApplication
+APP_ARGS=(--server.port=0 --spring.main.banner-mode=off)
+
+"$MVN" -B -q -f "$ROOT/pom.xml" -Pstartup -DskipTests package
+JAR="$(ls "$ROOT"/target/demo-*.jar | grep -v '\.original$' | head -n 1)"
+
+rm -rf "$WORK"
+mkdir -p "$WORK/exploded"
+(cd "$WORK/exploded" && jar xf "$JAR")
+jar cf "$WORK/application.jar" -C "$WORK/exploded/BOOT-INF/classes" .
+CLASSPATH="$WORK/application.jar"
+for lib in "$WORK"/exploded/BOOT-INF/lib/*.jar; do
+    CLASSPATH="$CLASSPATH:$lib"
+done
+
+# Prints the "process running for" seconds reported by Spring Boot once the context has started.
+start_once() {
+    local log="$WORK/run.log"
+    "$@" >"$log" 2>&1 &
+    local pid=$!
+    until grep -q "Started DemoApplication" "$log"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            cat "$log" >&2
+            return 1
+        fi
+        sleep 0.1
+    done
+    kill "$pid"
+    wait "$pid" || true
+    sed -n 's/.*process running for \([0-9.]*\)).*/\1/p' "$log"
+}
+
+measure() {
+    local name="$1"
+    shift
+    local times=()
+    for _ in $(seq "$RUNS"); do
+        times+=("$(start_once "$@")")
+    done
+    printf '%-12s median %ss  runs: %s\n' "$name" \
+        "$(printf '%s\n' "${times[@]}" | sort -n | awk '{t[NR]=$1} END {print t[int((NR + 1) / 2)]}')" "${times[*]}"
+}
+
+AOT=(-Dspring.aot.enabled=true -cp "$CLASSPATH" "$MAIN_CLASS" --spring.profiles.active=startup "${APP_ARGS[@]}")
+
+echo "Training AppCDS archive..."
+start_once java -XX:ArchiveClassesAtExit="$WORK/application.jsa" "${AOT[@]}" >/dev/null
+
+measure default java -jar "$JAR" "${APP_ARGS[@]}"
+measure aot java "${AOT[@]}"
+measure aot+cds java -XX:SharedArchiveFile="$WORK/application.jsa" "${AOT[@]}"
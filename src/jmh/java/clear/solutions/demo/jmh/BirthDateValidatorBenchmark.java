@@ -0,0 +1,48 @@
+package clear.solutions.demo.jmh;
+
+import clear.solutions.demo.request.validation.validator.BirthDateValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BirthDateValidatorBenchmark {
+    private BirthDateValidator validator;
+    private StubConstraintValidatorContext context;
+    private LocalDate adultBirthDate;
+    private LocalDate minorBirthDate;
+
+    @Setup
+    public void setUp() {
+        validator = new BirthDateValidator(18, Clock.systemDefaultZone());
+        context = new StubConstraintValidatorContext("Age must be bigger than %s");
+        adultBirthDate = LocalDate.of(2003, 7, 28);
+        minorBirthDate = LocalDate.now().minusYears(5);
+    }
+
+    @Benchmark
+    public boolean validBirthDate() {
+        return validator.isValid(adultBirthDate, context);
+    }
+
+    @Benchmark
+    public boolean invalidBirthDate() {
+        return validator.isValid(minorBirthDate, context);
+    }
+}
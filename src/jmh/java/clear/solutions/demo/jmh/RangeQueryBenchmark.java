@@ -0,0 +1,75 @@
+package clear.solutions.demo.jmh;
+
+import clear.solutions.demo.DemoApplication;
+import clear.solutions.demo.index.BirthDateIndex;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeQueryBenchmark {
+    private static final LocalDate FROM_DATE = LocalDate.of(1990, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(1990, 1, 31);
+
+    @Param({"10000", "1000000"})
+    private int users;
+
+    @Param({"database", "memory-index"})
+    private String rangeMode;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("user.cache.by-range.maximum-users=0",
+                        "user.range.mode=" + rangeMode)
+                .run();
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO "user" ("id", "email", "first_name", "last_name", "birth_date")
+                SELECT RANDOM_UUID(), 'user' || X || '@example.com', 'first' || X, 'last' || X,
+                       DATEADD('DAY', -CAST(RAND() * 25000 AS INT), DATE '2005-01-01')
+                FROM SYSTEM_RANGE(1, ?)""", users);
+        userService = context.getBean(UserService.class);
+        if ("memory-index".equals(rangeMode)) {
+            context.getBean(BirthDateIndex.class).rebuild();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserView> findByBirthDateRange() {
+        return userService.findByBirthDateRange(FROM_DATE, TO_DATE);
+    }
+}
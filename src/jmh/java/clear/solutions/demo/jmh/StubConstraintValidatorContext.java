@@ -0,0 +1,71 @@
+package clear.solutions.demo.jmh;
+
+import jakarta.validation.ClockProvider;
+import jakarta.validation.ConstraintValidatorContext;
+
+class StubConstraintValidatorContext implements ConstraintValidatorContext {
+    private final String defaultMessageTemplate;
+    private final ConstraintViolationBuilder violationBuilder = new StubConstraintViolationBuilder();
+
+    StubConstraintValidatorContext(String defaultMessageTemplate) {
+        this.defaultMessageTemplate = defaultMessageTemplate;
+    }
+
+    @Override
+    public void disableDefaultConstraintViolation() {
+    }
+
+    @Override
+    public String getDefaultConstraintMessageTemplate() {
+        return defaultMessageTemplate;
+    }
+
+    @Override
+    public ClockProvider getClockProvider() {
+        return null;
+    }
+
+    @Override
+    public ConstraintViolationBuilder buildConstraintViolationWithTemplate(String messageTemplate) {
+        return violationBuilder;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        throw new UnsupportedOperationException();
+    }
+
+    private static class StubConstraintViolationBuilder implements ConstraintViolationBuilder {
+
+        @Override
+        public NodeBuilderDefinedContext addNode(String name) {
+            return null;
+        }
+
+        @Override
+        public NodeBuilderCustomizableContext addPropertyNode(String name) {
+            return null;
+        }
+
+        @Override
+        public LeafNodeBuilderCustomizableContext addBeanNode() {
+            return null;
+        }
+
+        @Override
+        public ContainerElementNodeBuilderCustomizableContext addContainerElementNode(String name, Class<?> containerType,
+                                                                                      Integer typeArgumentIndex) {
+            return null;
+        }
+
+        @Override
+        public NodeBuilderDefinedContext addParameterNode(int index) {
+            return null;
+        }
+
+        @Override
+        public ConstraintValidatorContext addConstraintViolation() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package clear.solutions.demo.jmh;
+
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.service.imp.UserServiceImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+    private UserServiceImp userService;
+    private UserModificationRequest userModificationRequest;
+
+    @Setup
+    public void setUp() {
+        userService = new UserServiceImp(null, null, null, null, null, Optional.empty(), null, null, null, null);
+        userModificationRequest = new UserModificationRequest();
+        userModificationRequest.setEmail("e@gmail.com");
+        userModificationRequest.setFirstName("illya");
+        userModificationRequest.setLastName("zuiew");
+        userModificationRequest.setBirthDate(LocalDate.of(2003, 7, 28));
+        userModificationRequest.setAddress("Kyiv");
+        userModificationRequest.setPhone("+380000000000");
+    }
+
+    @Benchmark
+    public User mapUserModificationRequestToUser() {
+        return userService.mapUserModificationRequestToUser(userModificationRequest);
+    }
+}
@@ -0,0 +1,62 @@
+package clear.solutions.demo.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class AdaptiveConcurrencyLimit {
+    private final int maxConcurrency;
+    private final int minLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final boolean adaptive;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimit(int maxConcurrency, int initialLimit, int minLimit, Duration latencyThreshold,
+                                    double backoffRatio, boolean adaptive) {
+        this.maxConcurrency = maxConcurrency;
+        this.minLimit = Math.min(minLimit, maxConcurrency);
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.adaptive = adaptive;
+        this.limit = adaptive ? Math.max(this.minLimit, Math.min(initialLimit, maxConcurrency)) : maxConcurrency;
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        if (!adaptive) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightBeforeRelease * 2 >= limit) {
+                limit = Math.min(maxConcurrency, limit + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,100 @@
+package clear.solutions.demo.admission;
+
+import clear.solutions.demo.controller.UserController;
+import clear.solutions.demo.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "user.admission.enabled", havingValue = "true")
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+    public AdmissionControlInterceptor(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        for (Method method : UserController.class.getDeclaredMethods()) {
+            if (AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class)) {
+                String name = method.getName();
+                AdmissionProperties.EndpointLimit config = properties.forEndpoint(toKebabCase(name));
+                AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(config.maxConcurrency(), config.initialLimit(),
+                        config.minLimit(), config.latencyThreshold(), config.backoffRatio(), config.adaptive());
+                endpoints.put(name, new Endpoint(limit, config.retryAfter(), register(name, limit, meterRegistry)));
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)
+                || !UserController.class.isAssignableFrom(handlerMethod.getBeanType())) {
+            return true;
+        }
+        Endpoint endpoint = endpoints.get(handlerMethod.getMethod().getName());
+        if (endpoint == null) {
+            return true;
+        }
+        if (!endpoint.limit().tryAcquire()) {
+            endpoint.rejected().increment();
+            throw new ServiceOverloadedException("Too many concurrent requests, retry later", endpoint.retryAfter());
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(endpoint.limit(), System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.limit().release(System.nanoTime() - permit.startNanos());
+        }
+    }
+
+    public AdaptiveConcurrencyLimit limit(String handlerMethodName) {
+        Endpoint endpoint = endpoints.get(handlerMethodName);
+        return endpoint == null ? null : endpoint.limit();
+    }
+
+    private static Counter register(String name, AdaptiveConcurrencyLimit limit, MeterRegistry meterRegistry) {
+        Gauge.builder("user.admission.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Current concurrency limit of an endpoint")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        Gauge.builder("user.admission.in-flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests currently admitted to an endpoint")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        return Counter.builder("user.admission.rejected")
+                .description("Requests shed because an endpoint was at its concurrency limit")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+    }
+
+    private static String toKebabCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT);
+    }
+
+    private record Endpoint(AdaptiveConcurrencyLimit limit, Duration retryAfter, Counter rejected) {
+    }
+
+    private record Permit(AdaptiveConcurrencyLimit limit, long startNanos) {
+    }
+}
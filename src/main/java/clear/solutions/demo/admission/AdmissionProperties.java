@@ -0,0 +1,30 @@
+package clear.solutions.demo.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties("user.admission")
+public record AdmissionProperties(EndpointLimit defaults, Map<String, EndpointLimit> endpoints) {
+
+    public EndpointLimit forEndpoint(String endpoint) {
+        EndpointLimit override = endpoints == null ? null : endpoints.get(endpoint);
+        return override == null ? defaults : override.orElse(defaults);
+    }
+
+    public record EndpointLimit(Integer maxConcurrency, Integer initialLimit, Integer minLimit, Duration latencyThreshold,
+                                Double backoffRatio, Duration retryAfter, Boolean adaptive) {
+
+        private EndpointLimit orElse(EndpointLimit defaults) {
+            return new EndpointLimit(
+                    maxConcurrency != null ? maxConcurrency : defaults.maxConcurrency(),
+                    initialLimit != null ? initialLimit : defaults.initialLimit(),
+                    minLimit != null ? minLimit : defaults.minLimit(),
+                    latencyThreshold != null ? latencyThreshold : defaults.latencyThreshold(),
+                    backoffRatio != null ? backoffRatio : defaults.backoffRatio(),
+                    retryAfter != null ? retryAfter : defaults.retryAfter(),
+                    adaptive != null ? adaptive : defaults.adaptive());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package clear.solutions.demo.aggregate;
+
+import clear.solutions.demo.model.BirthDateCount;
+import clear.solutions.demo.repository.UserRepository;
+import clear.solutions.demo.request.validation.validator.BirthDateValidator;
+import clear.solutions.demo.response.AgeCohortCounts;
+import clear.solutions.demo.response.AgeHistogramBucket;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+@Component
+public class AgeCohortCounters implements SmartInitializingSingleton {
+    private static final long MIN_EPOCH_DAY = LocalDate.of(1800, 1, 1).toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.of(2199, 12, 31).toEpochDay();
+
+    private final UserRepository userRepository;
+    private final Clock clock;
+    private final int[] ageThresholds;
+    private final long[] cutoffDays;
+    private final LongAdder[] atLeastAgeCounts;
+    private final LongAdder total = new LongAdder();
+    private final AtomicLongArray dayTree = new AtomicLongArray((int) (MAX_EPOCH_DAY - MIN_EPOCH_DAY) + 2);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile LocalDate today;
+
+    public AgeCohortCounters(UserRepository userRepository, Clock clock,
+                             @Value("${user.cohorts.age-thresholds}") int[] ageThresholds,
+                             @Value("${user.age.restriction}") int ageRestriction) {
+        this.userRepository = userRepository;
+        this.clock = clock;
+        this.ageThresholds = IntStream.concat(IntStream.of(ageThresholds), IntStream.of(ageRestriction))
+                .distinct()
+                .sorted()
+                .toArray();
+        this.cutoffDays = new long[this.ageThresholds.length];
+        this.atLeastAgeCounts = new LongAdder[this.ageThresholds.length];
+        for (int i = 0; i < atLeastAgeCounts.length; i++) {
+            atLeastAgeCounts[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        List<BirthDateCount> counts = userRepository.countAllByBirthDate();
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < dayTree.length(); i++) {
+                dayTree.set(i, 0);
+            }
+            total.reset();
+            for (LongAdder atLeastAgeCount : atLeastAgeCounts) {
+                atLeastAgeCount.reset();
+            }
+            today = LocalDate.now(clock);
+            for (int i = 0; i < ageThresholds.length; i++) {
+                cutoffDays[i] = thresholdCutoffDay(today, ageThresholds[i]);
+            }
+            for (BirthDateCount count : counts) {
+                addUnderLock(count.birthDate(), count.count());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> add(event.birthDate(), 1);
+            case UPDATED -> {
+                if (event.birthDate() != null && !event.birthDate().equals(event.previousBirthDate())) {
+                    add(event.previousBirthDate(), -1);
+                    add(event.birthDate(), 1);
+                }
+            }
+            case DELETED -> add(event.previousBirthDate(), -1);
+            case EMAIL_UPDATED -> {
+            }
+        }
+    }
+
+    public void add(LocalDate birthDate, long delta) {
+        if (birthDate == null) {
+            return;
+        }
+        rollOver();
+        lock.readLock().lock();
+        try {
+            addUnderLock(birthDate, delta);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public AgeCohortCounts counts() {
+        rollOver();
+        lock.readLock().lock();
+        try {
+            Map<Integer, Long> atLeastAge = new LinkedHashMap<>();
+            for (int i = 0; i < ageThresholds.length; i++) {
+                atLeastAge.put(ageThresholds[i], atLeastAgeCounts[i].sum());
+            }
+            return new AgeCohortCounts(today, total.sum(), atLeastAge);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<AgeHistogramBucket> histogram(int maxAge) {
+        rollOver();
+        lock.readLock().lock();
+        try {
+            List<AgeHistogramBucket> buckets = new ArrayList<>(maxAge + 1);
+            long youngerOrEqual = prefixSum(cutoffDay(today, 0));
+            for (int age = 0; age <= maxAge; age++) {
+                long older = prefixSum(cutoffDay(today, age + 1));
+                buckets.add(new AgeHistogramBucket(age, youngerOrEqual - older));
+                youngerOrEqual = older;
+            }
+            return buckets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rollOver() {
+        LocalDate now = LocalDate.now(clock);
+        if (now.equals(today)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (now.equals(today)) {
+                return;
+            }
+            for (int i = 0; i < ageThresholds.length; i++) {
+                long cutoffDay = thresholdCutoffDay(now, ageThresholds[i]);
+                atLeastAgeCounts[i].add(prefixSum(cutoffDay) - prefixSum(cutoffDays[i]));
+                cutoffDays[i] = cutoffDay;
+            }
+            today = now;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addUnderLock(LocalDate birthDate, long delta) {
+        long epochDay = clamp(birthDate.toEpochDay());
+        for (int i = treeIndex(epochDay); i < dayTree.length(); i += i & -i) {
+            dayTree.addAndGet(i, delta);
+        }
+        total.add(delta);
+        for (int i = 0; i < ageThresholds.length; i++) {
+            if (epochDay <= cutoffDays[i]) {
+                atLeastAgeCounts[i].add(delta);
+            }
+        }
+    }
+
+    private long prefixSum(long epochDay) {
+        long sum = 0;
+        for (int i = treeIndex(epochDay); i > 0; i -= i & -i) {
+            sum += dayTree.get(i);
+        }
+        return sum;
+    }
+
+    private static long thresholdCutoffDay(LocalDate today, int age) {
+        return clamp(BirthDateValidator.latestValidBirthDate(today, age).toEpochDay());
+    }
+
+    private static long cutoffDay(LocalDate today, int age) {
+        return clamp(today.minusYears(age).toEpochDay());
+    }
+
+    private static long clamp(long epochDay) {
+        return Math.max(MIN_EPOCH_DAY, Math.min(MAX_EPOCH_DAY, epochDay));
+    }
+
+    private static int treeIndex(long epochDay) {
+        return (int) (epochDay - MIN_EPOCH_DAY) + 1;
+    }
+}
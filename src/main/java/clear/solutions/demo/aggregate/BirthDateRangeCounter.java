@@ -0,0 +1,177 @@
+package clear.solutions.demo.aggregate;
+
+import clear.solutions.demo.cache.BirthDateRange;
+import clear.solutions.demo.model.BirthDateCount;
+import clear.solutions.demo.model.UserBirthDate;
+import clear.solutions.demo.replica.ReplicaRoutingDataSource;
+import clear.solutions.demo.repository.UserRepository;
+import clear.solutions.demo.response.BirthDateRangeCount;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+@Component
+public class BirthDateRangeCounter implements DisposableBean {
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final long splitDays;
+    private final ForkJoinPool pool;
+
+    public BirthDateRangeCounter(UserRepository userRepository, TransactionTemplate transactionTemplate,
+                                 @Value("${user.counts.parallel.split-days}") long splitDays,
+                                 @Value("${user.counts.parallel.parallelism}") int parallelism) {
+        this.userRepository = userRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.splitDays = splitDays;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public List<BirthDateRangeCount> count(List<BirthDateRange> ranges, boolean parallel) {
+        if (ranges.isEmpty()) {
+            return List.of();
+        }
+        BirthDateRange span = span(ranges);
+        List<BirthDateCount> counts = parallel
+                ? pool.invoke(new CountTask(span.fromDate(), span.toDate(), replicaAllowed()))
+                : readOnlyTransactionTemplate.execute(status -> userRepository.countByBirthDate(span.fromDate(), span.toDate()));
+
+        long[] epochDays = new long[counts.size()];
+        long[] cumulativeCounts = new long[counts.size() + 1];
+        for (int i = 0; i < counts.size(); i++) {
+            epochDays[i] = counts.get(i).birthDate().toEpochDay();
+            cumulativeCounts[i + 1] = cumulativeCounts[i] + counts.get(i).count();
+        }
+
+        List<BirthDateRangeCount> result = new ArrayList<>(ranges.size());
+        for (BirthDateRange range : ranges) {
+            int from = lowerBound(epochDays, range.fromDate().toEpochDay());
+            int to = lowerBound(epochDays, range.toDate().toEpochDay() + 1);
+            result.add(new BirthDateRangeCount(range.fromDate(), range.toDate(),
+                    cumulativeCounts[to] - cumulativeCounts[from], null));
+        }
+        return result;
+    }
+
+    public List<BirthDateRangeCount> countWithIds(List<BirthDateRange> ranges) {
+        if (ranges.isEmpty()) {
+            return List.of();
+        }
+        BirthDateRange span = span(ranges);
+        Integer[] byFromDate = new Integer[ranges.size()];
+        List<List<UUID>> ids = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            byFromDate[i] = i;
+            ids.add(new ArrayList<>());
+        }
+        Arrays.sort(byFromDate, Comparator.comparing(index -> ranges.get(index).fromDate()));
+
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserBirthDate> birthDates = userRepository.streamBirthDatesByRange(span.fromDate(), span.toDate())) {
+                List<Integer> active = new ArrayList<>();
+                int[] next = {0};
+                birthDates.forEach(user -> {
+                    while (next[0] < byFromDate.length
+                            && !ranges.get(byFromDate[next[0]]).fromDate().isAfter(user.birthDate())) {
+                        active.add(byFromDate[next[0]++]);
+                    }
+                    active.removeIf(index -> ranges.get(index).toDate().isBefore(user.birthDate()));
+                    for (int index : active) {
+                        ids.get(index).add(user.id());
+                    }
+                });
+            }
+        });
+
+        List<BirthDateRangeCount> result = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            BirthDateRange range = ranges.get(i);
+            result.add(new BirthDateRangeCount(range.fromDate(), range.toDate(), ids.get(i).size(), ids.get(i)));
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private static boolean replicaAllowed() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                ? ReplicaRoutingDataSource.currentTarget() == ReplicaRoutingDataSource.Target.REPLICA
+                : ReplicaRoutingDataSource.isReplicaAllowed();
+    }
+
+    private static BirthDateRange span(List<BirthDateRange> ranges) {
+        LocalDate fromDate = ranges.get(0).fromDate();
+        LocalDate toDate = ranges.get(0).toDate();
+        for (BirthDateRange range : ranges) {
+            fromDate = range.fromDate().isBefore(fromDate) ? range.fromDate() : fromDate;
+            toDate = range.toDate().isAfter(toDate) ? range.toDate() : toDate;
+        }
+        return new BirthDateRange(fromDate, toDate);
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private class CountTask extends RecursiveTask<List<BirthDateCount>> {
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        private final boolean replicaAllowed;
+
+        private CountTask(LocalDate fromDate, LocalDate toDate, boolean replicaAllowed) {
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.replicaAllowed = replicaAllowed;
+        }
+
+        @Override
+        protected List<BirthDateCount> compute() {
+            long days = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+            if (days <= splitDays) {
+                return countLeaf();
+            }
+            LocalDate middle = fromDate.plusDays(days / 2);
+            CountTask left = new CountTask(fromDate, middle.minusDays(1), replicaAllowed);
+            CountTask right = new CountTask(middle, toDate, replicaAllowed);
+            left.fork();
+            List<BirthDateCount> counts = new ArrayList<>(right.compute());
+            counts.addAll(0, left.join());
+            return counts;
+        }
+
+        private List<BirthDateCount> countLeaf() {
+            Boolean previous = ReplicaRoutingDataSource.allowReplica(replicaAllowed);
+            try {
+                return readOnlyTransactionTemplate.execute(status -> userRepository.countByBirthDate(fromDate, toDate));
+            } finally {
+                ReplicaRoutingDataSource.allowReplica(previous);
+            }
+        }
+    }
+}
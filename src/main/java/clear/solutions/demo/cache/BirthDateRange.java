@@ -0,0 +1,10 @@
+package clear.solutions.demo.cache;
+
+import java.time.LocalDate;
+
+public record BirthDateRange(LocalDate fromDate, LocalDate toDate) {
+
+    public boolean contains(LocalDate birthDate) {
+        return !birthDate.isBefore(fromDate) && !birthDate.isAfter(toDate);
+    }
+}
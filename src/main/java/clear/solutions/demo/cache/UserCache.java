@@ -0,0 +1,168 @@
+package clear.solutions.demo.cache;
+
+import clear.solutions.demo.model.UserView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+    private static final int BUCKET_DAYS = 32;
+
+    private final Cache<UUID, UserView> usersById;
+    private final Cache<BirthDateRange, List<UserView>> usersByRange;
+    private final Map<Long, Set<BirthDateRange>> rangesByBucket = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<BirthDateRange>> rangesByUser = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock generationLock = new ReentrantReadWriteLock();
+    private long generation;
+
+    public UserCache(@Value("${user.cache.by-id.maximum-size}") long byIdMaximumSize,
+                     @Value("${user.cache.by-range.maximum-users}") long byRangeMaximumUsers,
+                     @Value("${user.cache.expire-after-write}") Duration expireAfterWrite,
+                     MeterRegistry meterRegistry) {
+        usersById = Caffeine.newBuilder()
+                .maximumSize(byIdMaximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        usersByRange = Caffeine.newBuilder()
+                .maximumWeight(byRangeMaximumUsers)
+                .<BirthDateRange, List<UserView>>weigher((range, users) -> users.size() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                .evictionListener((BirthDateRange range, List<UserView> users, RemovalCause cause) -> unindex(range, users))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByRange, "users.by-range");
+    }
+
+    public UserView getById(UUID userId, Function<UUID, UserView> loader) {
+        return usersById.get(userId, loader);
+    }
+
+    public List<UserView> getByRange(LocalDate fromDate, LocalDate toDate, Function<BirthDateRange, List<UserView>> loader) {
+        BirthDateRange range = new BirthDateRange(fromDate, toDate);
+        List<UserView> cached = usersByRange.getIfPresent(range);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation();
+        List<UserView> users = loader.apply(range);
+        if (users != null) {
+            generationLock.readLock().lock();
+            try {
+                if (generation == loadGeneration) {
+                    usersByRange.asMap().compute(range, (key, current) -> {
+                        if (current != null) {
+                            return current;
+                        }
+                        index(key, users);
+                        return users;
+                    });
+                }
+            } finally {
+                generationLock.readLock().unlock();
+            }
+        }
+        return users;
+    }
+
+    public void evict(UUID userId, LocalDate birthDate) {
+        usersById.invalidate(userId);
+        nextGeneration();
+        Set<BirthDateRange> ranges = new HashSet<>(rangesByUser.getOrDefault(userId, Set.of()));
+        if (birthDate != null) {
+            addRangesContaining(birthDate, ranges);
+        }
+        ranges.forEach(this::invalidate);
+    }
+
+    public void evictRanges(Collection<LocalDate> birthDates) {
+        nextGeneration();
+        Set<BirthDateRange> ranges = new HashSet<>();
+        birthDates.forEach(birthDate -> addRangesContaining(birthDate, ranges));
+        ranges.forEach(this::invalidate);
+    }
+
+    private long generation() {
+        generationLock.readLock().lock();
+        try {
+            return generation;
+        } finally {
+            generationLock.readLock().unlock();
+        }
+    }
+
+    private void nextGeneration() {
+        generationLock.writeLock().lock();
+        try {
+            generation++;
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+    }
+
+    private void addRangesContaining(LocalDate birthDate, Set<BirthDateRange> ranges) {
+        for (BirthDateRange range : rangesByBucket.getOrDefault(bucket(birthDate), Set.of())) {
+            if (range.contains(birthDate)) {
+                ranges.add(range);
+            }
+        }
+    }
+
+    private void invalidate(BirthDateRange range) {
+        usersByRange.asMap().computeIfPresent(range, (key, users) -> {
+            unindex(key, users);
+            return null;
+        });
+    }
+
+    private void index(BirthDateRange range, List<UserView> users) {
+        for (long bucket = bucket(range.fromDate()); bucket <= bucket(range.toDate()); bucket++) {
+            add(rangesByBucket, bucket, range);
+        }
+        users.forEach(user -> add(rangesByUser, user.id(), range));
+    }
+
+    private void unindex(BirthDateRange range, List<UserView> users) {
+        for (long bucket = bucket(range.fromDate()); bucket <= bucket(range.toDate()); bucket++) {
+            remove(rangesByBucket, bucket, range);
+        }
+        users.forEach(user -> remove(rangesByUser, user.id(), range));
+    }
+
+    private static long bucket(LocalDate birthDate) {
+        return Math.floorDiv(birthDate.toEpochDay(), BUCKET_DAYS);
+    }
+
+    private static <K> void add(Map<K, Set<BirthDateRange>> index, K key, BirthDateRange range) {
+        index.compute(key, (ignored, ranges) -> {
+            Set<BirthDateRange> result = ranges == null ? ConcurrentHashMap.newKeySet() : ranges;
+            result.add(range);
+            return result;
+        });
+    }
+
+    private static <K> void remove(Map<K, Set<BirthDateRange>> index, K key, BirthDateRange range) {
+        index.computeIfPresent(key, (ignored, ranges) -> {
+            ranges.remove(range);
+            return ranges.isEmpty() ? null : ranges;
+        });
+    }
+}
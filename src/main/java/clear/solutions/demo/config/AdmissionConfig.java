@@ -0,0 +1,25 @@
+package clear.solutions.demo.config;
+
+import clear.solutions.demo.admission.AdmissionControlInterceptor;
+import clear.solutions.demo.admission.AdmissionProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "user.admission.enabled", havingValue = "true")
+@EnableConfigurationProperties(AdmissionProperties.class)
+@RequiredArgsConstructor
+public class AdmissionConfig implements WebMvcConfigurer {
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor);
+    }
+}
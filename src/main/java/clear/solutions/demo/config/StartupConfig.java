@@ -0,0 +1,48 @@
+package clear.solutions.demo.config;
+
+import clear.solutions.demo.id.UserIdGenerator;
+import clear.solutions.demo.request.UserBirthDateCountFilter;
+import clear.solutions.demo.request.UserBirthDateRangeFilter;
+import clear.solutions.demo.request.UserBirthDateRangePageFilter;
+import clear.solutions.demo.request.UserEmailUpdate;
+import clear.solutions.demo.request.UserExportFilter;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.request.validation.validator.BirthDateValidator;
+import clear.solutions.demo.response.UserChange;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+@Configuration
+@ImportRuntimeHints(StartupConfig.UserRuntimeHints.class)
+@RegisterReflectionForBinding({UserModificationRequest.class, UserEmailUpdate.class, UserBirthDateRangeFilter.class,
+        UserBirthDateRangePageFilter.class, UserBirthDateCountFilter.class, UserExportFilter.class, UserChange.class})
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerlyInitializedUserBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(SmartInitializingSingleton.class);
+    }
+
+    static class UserRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(BirthDateValidator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(UserIdGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(TypeReference.of(Executors.class), hint -> hint
+                    .withMethod("newVirtualThreadPerTaskExecutor", List.of(), ExecutableMode.INVOKE));
+        }
+    }
+}
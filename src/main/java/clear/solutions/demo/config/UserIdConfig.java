@@ -0,0 +1,24 @@
+package clear.solutions.demo.config;
+
+import clear.solutions.demo.id.UserIdGenerator;
+import clear.solutions.demo.id.UserIdStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+@Configuration
+public class UserIdConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer userIdHibernatePropertiesCustomizer(@Value("${user.id.strategy}") UserIdStrategy strategy,
+                                                                             @Value("${user.id.storage}") String storage) {
+        return properties -> {
+            properties.put(UserIdGenerator.STRATEGY_SETTING, strategy);
+            properties.put(AvailableSettings.PREFERRED_UUID_JDBC_TYPE, storage.toUpperCase(Locale.ROOT));
+        };
+    }
+}
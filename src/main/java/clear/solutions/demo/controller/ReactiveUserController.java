@@ -0,0 +1,95 @@
+package clear.solutions.demo.controller;
+
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.request.UserBirthDateRangeFilter;
+import clear.solutions.demo.request.UserBirthDateRangePageFilter;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.response.BatchImportResult;
+import clear.solutions.demo.response.UserPage;
+import clear.solutions.demo.service.ReactiveUserService;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@Validated
+public class ReactiveUserController {
+    public final ReactiveUserService reactiveUserService;
+
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<UserView> findUserByRange(@Valid UserBirthDateRangeFilter filter) {
+        return reactiveUserService.findByBirthDateRange(filter.getFromDate(), filter.getToDate());
+    }
+
+    @GetMapping(value = "/users/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<UserView> streamUserByRange(@Valid UserBirthDateRangeFilter filter) {
+        return reactiveUserService.findByBirthDateRange(filter.getFromDate(), filter.getToDate());
+    }
+
+    @GetMapping(value = "/users/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<UserPage> findUserPageByRange(@Valid UserBirthDateRangePageFilter filter) {
+        return reactiveUserService.findPageByBirthDateRange(filter.getFromDate(), filter.getToDate(),
+                filter.getContinuationToken(), filter.getSize());
+    }
+
+    @GetMapping(value = "/users/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<UserView> findUser(@PathVariable UUID userId) {
+        return reactiveUserService.findById(userId);
+    }
+
+    @PostMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<UserView> createUser(@Valid UserModificationRequest userModificationRequest) {
+        return reactiveUserService.createUser(userModificationRequest);
+    }
+
+    @PostMapping(value = "/users/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<BatchImportResult> createUsers(@RequestBody Flux<UserModificationRequest> userModificationRequests) {
+        return reactiveUserService.importUsers(userModificationRequests);
+    }
+
+    @PutMapping(value = "/users/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<String> updateUser(@PathVariable UUID userId, @Valid UserModificationRequest userModificationRequest) {
+        return reactiveUserService.updateUser(userId, userModificationRequest)
+                .thenReturn("User was updated");
+    }
+
+    @PutMapping(value = "/users/{userId}/email", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<String> updateUserEmail(@PathVariable UUID userId, @Email @RequestParam String email) {
+        return reactiveUserService.updateUserEmail(userId, email)
+                .thenReturn("User was updated");
+    }
+
+    @DeleteMapping(value = "/users/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteUser(@PathVariable UUID userId) {
+        return reactiveUserService.deleteUserById(userId);
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Mono<String> handleConstraintViolation(ConstraintViolationException e) {
+        return Mono.just(e.getMessage());
+    }
+}
@@ -0,0 +1,49 @@
+package clear.solutions.demo.controller;
+
+import clear.solutions.demo.outbox.SseUserChangeSink;
+import clear.solutions.demo.outbox.UserOutbox;
+import clear.solutions.demo.response.UserChange;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "user.outbox.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Validated
+public class UserChangeController {
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    public final UserOutbox userOutbox;
+    public final SseUserChangeSink sseUserChangeSink;
+
+    @GetMapping(value = "/users/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<UserChange> findUserChanges(@RequestParam(defaultValue = "0") @Min(0) long after,
+                                            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        return userOutbox.findAfter(after, limit);
+    }
+
+    @GetMapping(value = "/users/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserChanges(@RequestParam(required = false) @Min(0) Long after,
+                                        @RequestHeader(value = LAST_EVENT_ID, required = false) @Min(0) Long lastEventId) {
+        if (after != null) {
+            return sseUserChangeSink.subscribe(after);
+        }
+        return sseUserChangeSink.subscribe(lastEventId != null ? lastEventId : userOutbox.latestOffset());
+    }
+}
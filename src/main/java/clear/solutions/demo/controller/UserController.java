@@ -1,50 +1,214 @@
 package clear.solutions.demo.controller;
 
+import clear.solutions.demo.export.UserRowWriter;
 import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.request.UserBirthDateCountFilter;
 import clear.solutions.demo.request.UserBirthDateRangeFilter;
+import clear.solutions.demo.request.UserBirthDateRangePageFilter;
+import clear.solutions.demo.request.UserETag;
+import clear.solutions.demo.request.UserExportFilter;
+import clear.solutions.demo.request.UserEmailUpdate;
 import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.request.UserPatchRequest;
+import clear.solutions.demo.response.AgeCohortCounts;
+import clear.solutions.demo.response.AgeHistogramBucket;
+import clear.solutions.demo.response.BatchImportResult;
+import clear.solutions.demo.response.BirthDateRangeCount;
+import clear.solutions.demo.response.UserNameMatch;
+import clear.solutions.demo.response.UserPage;
 import clear.solutions.demo.service.UserService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Validated
 public class UserController {
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     public final UserService userService;
+    public final ObjectMapper objectMapper;
 
     @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public List<User> findUserByRange(@Valid UserBirthDateRangeFilter filter) {
+    public List<UserView> findUserByRange(@Valid UserBirthDateRangeFilter filter) {
         return userService.findByBirthDateRange(filter.getFromDate(), filter.getToDate());
     }
 
+    @GetMapping(value = "/users/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public UserPage findUserPageByRange(@Valid UserBirthDateRangePageFilter filter) {
+        return userService.findPageByBirthDateRange(filter.getFromDate(), filter.getToDate(),
+                filter.getContinuationToken(), filter.getSize());
+    }
+
+    @GetMapping(value = "/users/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserByRange(@Valid UserBirthDateRangeFilter filter) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                userService.streamByBirthDateRange(filter.getFromDate(), filter.getToDate(), user -> {
+                    try {
+                        writer.write(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/users/counts", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<BirthDateRangeCount> countUsersByRanges(@Valid UserBirthDateCountFilter filter) {
+        return userService.countByBirthDateRanges(filter.toRanges(), filter.isIncludeIds(), filter.isParallel());
+    }
+
+    @GetMapping(value = "/users/cohorts", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public AgeCohortCounts countUsersByAgeCohorts() {
+        return userService.countAgeCohorts();
+    }
+
+    @GetMapping(value = "/users/cohorts/histogram", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<AgeHistogramBucket> findUserAgeHistogram(@RequestParam(defaultValue = "120") @Min(0) @Max(200) int maxAge) {
+        return userService.findAgeHistogram(maxAge);
+    }
+
+    @GetMapping(value = "/users/by-email", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public UserView findUserByEmail(@RequestParam @Email @NotBlank String email) {
+        return userService.findByEmail(email);
+    }
+
+    @GetMapping(value = "/users/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<UserNameMatch> searchUsersByName(@RequestParam @NotBlank @Size(max = 100) String prefix,
+                                                 @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+        return userService.searchByNamePrefix(prefix, limit);
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@Valid UserExportFilter filter,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                             String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            UserRowWriter writer = filter.getFormat().newWriter(target);
+            userService.exportByBirthDateRange(filter.getFromDate(), filter.getToDate(), writer);
+            writer.finish();
+            if (target instanceof GZIPOutputStream gzipOutputStream) {
+                gzipOutputStream.finish();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(filter.getFormat().contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filter.getFormat().fileName())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping(value = "/users/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserView> findUser(@PathVariable UUID userId) {
+        UserView user = userService.findById(userId);
+        return ResponseEntity.ok()
+                .eTag(new UserETag(user.version()).encode())
+                .body(user);
+    }
+
     @PostMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public User createUser(@Valid UserModificationRequest userModificationRequest) {
         return userService.createUser(userModificationRequest);
     }
 
-    @PutMapping(value = "/users/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/users/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public String updateUser(@PathVariable UUID userId, @Valid UserModificationRequest userModificationRequest) {
-        userService.updateUser(userId, userModificationRequest);
-        return "User was updated";
+    public BatchImportResult createUsers(HttpServletRequest request) throws IOException {
+        try (MappingIterator<UserModificationRequest> userModificationRequests = objectMapper
+                .readerFor(UserModificationRequest.class)
+                .readValues(request.getInputStream())) {
+            return userService.importUsers(userModificationRequests);
+        }
+    }
+
+    @PutMapping(value = "/users/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> updateUser(@PathVariable UUID userId,
+                                             @Valid UserModificationRequest userModificationRequest,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = UserETag.expectedVersion(ifMatch);
+        userService.updateUser(userId, userModificationRequest, expectedVersion);
+        return userUpdated(expectedVersion);
+    }
+
+    @PatchMapping(value = "/users/{userId}", consumes = MERGE_PATCH_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> patchUser(@PathVariable UUID userId, @RequestBody ObjectNode patch,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws IOException {
+        Long expectedVersion = UserETag.expectedVersion(ifMatch);
+        userService.patchUser(userId, UserPatchRequest.fromMergePatch(patch, objectMapper), expectedVersion);
+        return userUpdated(expectedVersion);
     }
 
     @PutMapping(value = "/users/{userId}/email", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> updateUserEmail(@PathVariable UUID userId, @Email String email,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = UserETag.expectedVersion(ifMatch);
+        userService.updateUserEmail(userId, email, expectedVersion);
+        return userUpdated(expectedVersion);
+    }
+
+    @PutMapping(value = "/users/emails", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public String updateUserEmail(@PathVariable UUID userId, @Email String email) {
-        userService.updateUserEmail(userId, email);
-        return "User was updated";
+    public String updateUserEmails(@RequestBody @NotEmpty @Size(max = 1000) List<@Valid UserEmailUpdate> updates) {
+        userService.updateUserEmails(updates);
+        return "Users were updated";
     }
 
     @DeleteMapping(value = "/users/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -53,4 +217,25 @@ public class UserController {
         userService.deleteUserById(userId);
     }
 
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().toLowerCase(Locale.ROOT).equals("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<String> userUpdated(Long expectedVersion) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (expectedVersion != null) {
+            response.eTag(new UserETag(expectedVersion + 1).encode());
+        }
+        return response.body("User was updated");
+    }
+
 }
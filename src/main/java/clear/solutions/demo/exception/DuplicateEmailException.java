@@ -0,0 +1,24 @@
+package clear.solutions.demo.exception;
+
+import clear.solutions.demo.model.User;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Locale;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateEmailException extends RuntimeException {
+
+    public DuplicateEmailException(String message) {
+        super(message);
+    }
+
+    public static RuntimeException translate(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.toLowerCase(Locale.ROOT).contains(User.EMAIL_UNIQUE_INDEX)) {
+            return new DuplicateEmailException("User with this email already exists");
+        }
+        return e;
+    }
+}
@@ -1,6 +1,12 @@
 package clear.solutions.demo.exception.handler;
 
+import clear.solutions.demo.exception.ServiceOverloadedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +16,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.ServletWebRequest;
 
 @RestControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(EntityNotFoundException.class)
@@ -21,6 +28,36 @@ public class GlobalExceptionHandler {
                 .body(logAndGetErrorMessage(request, e.getLocalizedMessage(), e));
     }
 
+    @ExceptionHandler({JsonProcessingException.class, RuntimeJsonMappingException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ErrorMessageResponse> handleMalformedBodyExceptions(Exception e, ServletWebRequest request) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(logAndGetErrorMessage(request, e.getLocalizedMessage(), e));
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ErrorMessageResponse> handleConstraintViolationExceptions(Exception e, ServletWebRequest request) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(logAndGetErrorMessage(request, e.getLocalizedMessage(), e));
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ErrorMessageResponse> handleServiceOverloadedException(ServiceOverloadedException e,
+                                                                                 ServletWebRequest request) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(logAndGetErrorMessage(request, e.getLocalizedMessage(), e));
+    }
+
     private ErrorMessageResponse logAndGetErrorMessage(ServletWebRequest request, String message, Exception e) {
         var errorMessage = new ErrorMessageResponse(message, request.getRequest().getRequestURI(), request.getHttpMethod().name());
         return errorMessage;
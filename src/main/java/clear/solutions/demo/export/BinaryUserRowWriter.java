@@ -0,0 +1,59 @@
+package clear.solutions.demo.export;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class BinaryUserRowWriter implements UserRowWriter {
+    public static final int MAGIC = 0x55535231;
+    private static final int NULL_LENGTH = -1;
+
+    private final DataOutputStream output;
+    private final ByteArrayOutputStream rowBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream row = new DataOutputStream(rowBytes);
+
+    public BinaryUserRowWriter(OutputStream outputStream) throws IOException {
+        output = new DataOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+        output.writeInt(MAGIC);
+    }
+
+    @Override
+    public void writeRow(ResultSet resultSet) throws SQLException, IOException {
+        rowBytes.reset();
+        UUID id = resultSet.getObject(1, UUID.class);
+        row.writeLong(id.getMostSignificantBits());
+        row.writeLong(id.getLeastSignificantBits());
+        row.writeInt(Math.toIntExact(resultSet.getObject(5, LocalDate.class).toEpochDay()));
+        row.writeLong(resultSet.getLong(8));
+        writeString(resultSet.getString(2));
+        writeString(resultSet.getString(3));
+        writeString(resultSet.getString(4));
+        writeString(resultSet.getString(6));
+        writeString(resultSet.getString(7));
+
+        output.writeInt(rowBytes.size());
+        rowBytes.writeTo(output);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        output.flush();
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            row.writeShort(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        row.writeShort(bytes.length);
+        row.write(bytes);
+    }
+}
@@ -0,0 +1,67 @@
+package clear.solutions.demo.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class CsvUserRowWriter implements UserRowWriter {
+    private static final String HEADER = "id,email,first_name,last_name,birth_date,address,phone,version\r\n";
+    private static final int COLUMN_COUNT = 8;
+
+    private final Writer output;
+
+    public CsvUserRowWriter(OutputStream outputStream) throws IOException {
+        output = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        output.write(HEADER);
+    }
+
+    @Override
+    public void writeRow(ResultSet resultSet) throws SQLException, IOException {
+        for (int column = 1; column <= COLUMN_COUNT; column++) {
+            if (column > 1) {
+                output.write(',');
+            }
+            writeValue(resultSet.getString(column));
+        }
+        output.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        output.flush();
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!requiresQuoting(value)) {
+            output.write(value);
+            return;
+        }
+        output.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == '"') {
+                output.write('"');
+            }
+            output.write(character);
+        }
+        output.write('"');
+    }
+
+    private static boolean requiresQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == ',' || character == '"' || character == '\r' || character == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
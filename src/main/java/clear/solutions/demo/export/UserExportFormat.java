@@ -0,0 +1,37 @@
+package clear.solutions.demo.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public enum UserExportFormat {
+    BINARY("application/vnd.users.rows", "users.bin") {
+        @Override
+        public UserRowWriter newWriter(OutputStream outputStream) throws IOException {
+            return new BinaryUserRowWriter(outputStream);
+        }
+    },
+    CSV("text/csv", "users.csv") {
+        @Override
+        public UserRowWriter newWriter(OutputStream outputStream) throws IOException {
+            return new CsvUserRowWriter(outputStream);
+        }
+    };
+
+    private final String contentType;
+    private final String fileName;
+
+    UserExportFormat(String contentType, String fileName) {
+        this.contentType = contentType;
+        this.fileName = fileName;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String fileName() {
+        return fileName;
+    }
+
+    public abstract UserRowWriter newWriter(OutputStream outputStream) throws IOException;
+}
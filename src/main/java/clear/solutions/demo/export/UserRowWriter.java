@@ -0,0 +1,14 @@
+package clear.solutions.demo.export;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public interface UserRowWriter {
+    String SELECT_COLUMNS =
+            "\"id\", \"email\", \"first_name\", \"last_name\", \"birth_date\", \"address\", \"phone\", \"version\"";
+
+    void writeRow(ResultSet row) throws SQLException, IOException;
+
+    void finish() throws IOException;
+}
@@ -0,0 +1,35 @@
+package clear.solutions.demo.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Locale;
+import java.util.Properties;
+
+public class UserIdGenerator implements IdentifierGenerator {
+    public static final String STRATEGY_SETTING = "user.id.strategy";
+
+    private UserIdStrategy strategy = UserIdStrategy.V7;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        Object configured = serviceRegistry.requireService(ConfigurationService.class).getSettings().get(STRATEGY_SETTING);
+        if (configured != null) {
+            strategy = configured instanceof UserIdStrategy userIdStrategy
+                    ? userIdStrategy
+                    : UserIdStrategy.valueOf(configured.toString().trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return strategy.next();
+    }
+
+    public UserIdStrategy getStrategy() {
+        return strategy;
+    }
+}
@@ -0,0 +1,23 @@
+package clear.solutions.demo.id;
+
+import java.time.Clock;
+import java.util.UUID;
+
+public enum UserIdStrategy {
+    V4 {
+        @Override
+        public UUID next() {
+            return UUID.randomUUID();
+        }
+    },
+    V7 {
+        @Override
+        public UUID next() {
+            return TIME_ORDERED.next();
+        }
+    };
+
+    private static final UuidV7Generator TIME_ORDERED = new UuidV7Generator(Clock.systemUTC());
+
+    public abstract UUID next();
+}
@@ -0,0 +1,33 @@
+package clear.solutions.demo.id;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class UuidV7Generator {
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final Clock clock;
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public UuidV7Generator(Clock clock) {
+        this.clock = clock;
+    }
+
+    public UUID next() {
+        long now = clock.millis() << COUNTER_BITS;
+        long tick = lastTick.updateAndGet(last -> Math.max(last + 1, now));
+        long mostSigBits = (tick >>> COUNTER_BITS) << 16 | VERSION | tick & COUNTER_MASK;
+        long leastSigBits = ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    public static long timestampMillis(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,266 @@
+package clear.solutions.demo.index;
+
+import clear.solutions.demo.model.UserBirthDate;
+import clear.solutions.demo.repository.UserRepository;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "user.range.mode", havingValue = "memory-index")
+public class BirthDateIndex implements SmartInitializingSingleton {
+    private static final int REMOVED = Integer.MIN_VALUE;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int mergeThreshold;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile State state = new State(Snapshot.EMPTY, new ConcurrentHashMap<>(), new ConcurrentSkipListSet<>());
+
+    public BirthDateIndex(UserRepository userRepository, TransactionTemplate transactionTemplate,
+                          @Value("${user.range.memory-index.merge-threshold}") int mergeThreshold) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.mergeThreshold = mergeThreshold;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        SnapshotBuilder builder = new SnapshotBuilder();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserBirthDate> birthDates = userRepository.streamBirthDates()) {
+                birthDates.forEach(birthDate -> builder.add(birthDate.birthDate().toEpochDay(), birthDate.id()));
+            }
+        });
+        writeLock.lock();
+        try {
+            state = new State(builder.build(), new ConcurrentHashMap<>(), new ConcurrentSkipListSet<>());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                if (event.birthDate() != null) {
+                    put(event.userId(), event.birthDate());
+                }
+            }
+            case DELETED -> remove(event.userId());
+            case EMAIL_UPDATED -> {
+            }
+        }
+    }
+
+    public void put(UUID userId, LocalDate birthDate) {
+        write(userId, Math.toIntExact(birthDate.toEpochDay()));
+    }
+
+    public void remove(UUID userId) {
+        write(userId, REMOVED);
+    }
+
+    public List<UUID> findByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        State current = state;
+        int fromDay = Math.toIntExact(fromDate.toEpochDay());
+        int toDay = Math.toIntExact(toDate.toEpochDay());
+        Snapshot snapshot = current.snapshot();
+        Map<UUID, Integer> overrides = current.overrides();
+        Iterator<Entry> pending = current.entries().subSet(Entry.first(fromDay), Entry.first(toDay + 1)).iterator();
+
+        int start = snapshot.lowerBound(fromDay);
+        int end = snapshot.lowerBound(toDay + 1);
+        List<UUID> userIds = new ArrayList<>(end - start);
+        Entry next = pending.hasNext() ? pending.next() : null;
+        for (int i = start; i < end; i++) {
+            while (next != null && next.compareTo(snapshot, i) < 0) {
+                userIds.add(next.userId());
+                next = pending.hasNext() ? pending.next() : null;
+            }
+            UUID userId = snapshot.userId(i);
+            if (overrides.isEmpty() || !overrides.containsKey(userId)) {
+                userIds.add(userId);
+            }
+        }
+        while (next != null) {
+            userIds.add(next.userId());
+            next = pending.hasNext() ? pending.next() : null;
+        }
+        return userIds;
+    }
+
+    private void write(UUID userId, int day) {
+        writeLock.lock();
+        try {
+            State current = state;
+            Integer previousDay = current.overrides().put(userId, day);
+            if (previousDay != null && previousDay != REMOVED) {
+                current.entries().remove(new Entry(previousDay, userId));
+            }
+            if (day != REMOVED) {
+                current.entries().add(new Entry(day, userId));
+            }
+            if (current.overrides().size() >= mergeThreshold) {
+                state = new State(merge(current), new ConcurrentHashMap<>(), new ConcurrentSkipListSet<>());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Snapshot merge(State current) {
+        Snapshot snapshot = current.snapshot();
+        Map<UUID, Integer> overrides = current.overrides();
+        Iterator<Entry> pending = current.entries().iterator();
+
+        SnapshotBuilder builder = new SnapshotBuilder(snapshot.size + current.entries().size());
+        Entry next = pending.hasNext() ? pending.next() : null;
+        for (int i = 0; i < snapshot.size; i++) {
+            while (next != null && next.compareTo(snapshot, i) < 0) {
+                builder.add(next.day(), next.mostSigBits(), next.leastSigBits());
+                next = pending.hasNext() ? pending.next() : null;
+            }
+            if (!overrides.containsKey(snapshot.userId(i))) {
+                builder.add(snapshot.days[i], snapshot.mostSigBits[i], snapshot.leastSigBits[i]);
+            }
+        }
+        while (next != null) {
+            builder.add(next.day(), next.mostSigBits(), next.leastSigBits());
+            next = pending.hasNext() ? pending.next() : null;
+        }
+        return builder.build();
+    }
+
+    private record State(Snapshot snapshot, ConcurrentHashMap<UUID, Integer> overrides,
+                         ConcurrentSkipListSet<Entry> entries) {
+    }
+
+    private record Entry(int day, long mostSigBits, long leastSigBits) implements Comparable<Entry> {
+
+        private Entry(int day, UUID userId) {
+            this(day, userId.getMostSignificantBits(), userId.getLeastSignificantBits());
+        }
+
+        private static Entry first(int day) {
+            return new Entry(day, 0, 0);
+        }
+
+        private UUID userId() {
+            return new UUID(mostSigBits, leastSigBits);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return compare(other.day, other.mostSigBits, other.leastSigBits);
+        }
+
+        private int compareTo(Snapshot snapshot, int index) {
+            return compare(snapshot.days[index], snapshot.mostSigBits[index], snapshot.leastSigBits[index]);
+        }
+
+        private int compare(int otherDay, long otherMostSigBits, long otherLeastSigBits) {
+            if (day != otherDay) {
+                return Integer.compare(day, otherDay);
+            }
+            if (mostSigBits != otherMostSigBits) {
+                return Long.compareUnsigned(mostSigBits, otherMostSigBits);
+            }
+            return Long.compareUnsigned(leastSigBits, otherLeastSigBits);
+        }
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new int[0], new long[0], new long[0], 0);
+
+        private final int[] days;
+        private final long[] mostSigBits;
+        private final long[] leastSigBits;
+        private final int size;
+
+        private Snapshot(int[] days, long[] mostSigBits, long[] leastSigBits, int size) {
+            this.days = days;
+            this.mostSigBits = mostSigBits;
+            this.leastSigBits = leastSigBits;
+            this.size = size;
+        }
+
+        private int lowerBound(int day) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (days[middle] < day) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private UUID userId(int index) {
+            return new UUID(mostSigBits[index], leastSigBits[index]);
+        }
+    }
+
+    private static final class SnapshotBuilder {
+        private int[] days;
+        private long[] mostSigBits;
+        private long[] leastSigBits;
+        private int size;
+
+        private SnapshotBuilder() {
+            this(1024);
+        }
+
+        private SnapshotBuilder(int capacity) {
+            days = new int[Math.max(capacity, 1)];
+            mostSigBits = new long[days.length];
+            leastSigBits = new long[days.length];
+        }
+
+        private void add(long epochDay, UUID userId) {
+            add(Math.toIntExact(epochDay), userId.getMostSignificantBits(), userId.getLeastSignificantBits());
+        }
+
+        private void add(int day, long mostSigBit, long leastSigBit) {
+            if (size == days.length) {
+                int capacity = size + (size >> 1) + 1;
+                days = Arrays.copyOf(days, capacity);
+                mostSigBits = Arrays.copyOf(mostSigBits, capacity);
+                leastSigBits = Arrays.copyOf(leastSigBits, capacity);
+            }
+            days[size] = day;
+            mostSigBits[size] = mostSigBit;
+            leastSigBits[size] = leastSigBit;
+            size++;
+        }
+
+        private Snapshot build() {
+            return new Snapshot(Arrays.copyOf(days, size), Arrays.copyOf(mostSigBits, size),
+                    Arrays.copyOf(leastSigBits, size), size);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package clear.solutions.demo.index;
+
+import clear.solutions.demo.model.UserName;
+import clear.solutions.demo.repository.UserRepository;
+import clear.solutions.demo.response.UserNameMatch;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "user.name-index.enabled", havingValue = "true")
+public class NameIndex implements SmartInitializingSingleton {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing(Entry::key)
+            .thenComparing(Entry::userId);
+    private static final UUID FIRST_USER_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int mergeThreshold;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ConcurrentHashMap<UUID, UserName> names = new ConcurrentHashMap<>();
+    private volatile State state = State.of(Snapshot.EMPTY);
+
+    public NameIndex(UserRepository userRepository, TransactionTemplate transactionTemplate,
+                     @Value("${user.name-index.merge-threshold}") int mergeThreshold) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.mergeThreshold = mergeThreshold;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        List<UserName> loaded = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserName> userNames = userRepository.streamNames()) {
+                userNames.forEach(loaded::add);
+            }
+        });
+        List<Entry> entries = new ArrayList<>(loaded.size() * 3);
+        loaded.forEach(name -> addEntries(entries, name));
+        entries.sort(ENTRY_ORDER);
+        writeLock.lock();
+        try {
+            names.clear();
+            loaded.forEach(name -> names.put(name.id(), name));
+            state = State.of(Snapshot.of(entries));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                if (event.firstName() != null || event.lastName() != null) {
+                    put(event.userId(), event.firstName(), event.lastName());
+                }
+            }
+            case DELETED -> remove(event.userId());
+            case EMAIL_UPDATED -> {
+            }
+        }
+    }
+
+    public void put(UUID userId, String firstName, String lastName) {
+        writeLock.lock();
+        try {
+            UserName current = names.get(userId);
+            UserName name = new UserName(userId,
+                    firstName != null || current == null ? firstName : current.firstName(),
+                    lastName != null || current == null ? lastName : current.lastName());
+            names.put(userId, name);
+            changed(current, name);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(UUID userId) {
+        writeLock.lock();
+        try {
+            UserName current = names.remove(userId);
+            if (current != null) {
+                changed(current, null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<UserNameMatch> findByPrefix(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        State current = state;
+        Snapshot snapshot = current.snapshot();
+        Set<UUID> changed = current.changed();
+        Iterator<Entry> pending = current.entries().tailSet(new Entry(normalizedPrefix, FIRST_USER_ID)).iterator();
+
+        List<UserNameMatch> matches = new ArrayList<>(limit);
+        Set<UUID> seen = new HashSet<>();
+        int position = nextIndexed(snapshot, changed, snapshot.lowerBound(normalizedPrefix), normalizedPrefix);
+        Entry changedEntry = nextChanged(pending, normalizedPrefix);
+        while (matches.size() < limit && (position < snapshot.size || changedEntry != null)) {
+            Entry indexed = position < snapshot.size ? new Entry(snapshot.keys[position], snapshot.userId(position)) : null;
+            Entry next;
+            if (changedEntry == null || indexed != null && ENTRY_ORDER.compare(indexed, changedEntry) <= 0) {
+                next = indexed;
+                position = nextIndexed(snapshot, changed, position + 1, normalizedPrefix);
+            } else {
+                next = changedEntry;
+                changedEntry = nextChanged(pending, normalizedPrefix);
+            }
+            UserName name = names.get(next.userId());
+            if (name != null && seen.add(name.id())) {
+                matches.add(new UserNameMatch(name.id(), name.firstName(), name.lastName()));
+            }
+        }
+        return matches;
+    }
+
+    public static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private void changed(UserName previous, UserName name) {
+        State current = state;
+        UUID userId = previous != null ? previous.id() : name.id();
+        if (previous != null && current.changed().contains(userId)) {
+            entries(previous).forEach(current.entries()::remove);
+        }
+        if (name != null) {
+            current.entries().addAll(entries(name));
+        }
+        current.changed().add(userId);
+        if (current.changed().size() >= mergeThreshold) {
+            state = State.of(merge(current));
+        }
+    }
+
+    private Snapshot merge(State current) {
+        Snapshot snapshot = current.snapshot();
+        Set<UUID> changed = current.changed();
+        Iterator<Entry> pending = current.entries().iterator();
+
+        List<Entry> merged = new ArrayList<>(snapshot.size + current.entries().size());
+        Entry next = pending.hasNext() ? pending.next() : null;
+        for (int i = 0; i < snapshot.size; i++) {
+            Entry entry = new Entry(snapshot.keys[i], snapshot.userId(i));
+            while (next != null && ENTRY_ORDER.compare(next, entry) < 0) {
+                merged.add(next);
+                next = pending.hasNext() ? pending.next() : null;
+            }
+            if (!changed.contains(entry.userId())) {
+                merged.add(entry);
+            }
+        }
+        while (next != null) {
+            merged.add(next);
+            next = pending.hasNext() ? pending.next() : null;
+        }
+        return Snapshot.of(merged);
+    }
+
+    private static int nextIndexed(Snapshot snapshot, Set<UUID> changed, int from, String prefix) {
+        for (int i = from; i < snapshot.size && snapshot.keys[i].startsWith(prefix); i++) {
+            if (changed.isEmpty() || !changed.contains(snapshot.userId(i))) {
+                return i;
+            }
+        }
+        return snapshot.size;
+    }
+
+    private static Entry nextChanged(Iterator<Entry> pending, String prefix) {
+        if (!pending.hasNext()) {
+            return null;
+        }
+        Entry entry = pending.next();
+        return entry.key().startsWith(prefix) ? entry : null;
+    }
+
+    private static List<Entry> entries(UserName name) {
+        List<Entry> entries = new ArrayList<>(3);
+        addEntries(entries, name);
+        return entries;
+    }
+
+    private static void addEntries(List<Entry> entries, UserName name) {
+        if (name.firstName() != null) {
+            entries.add(new Entry(normalize(name.firstName()), name.id()));
+        }
+        if (name.lastName() != null) {
+            entries.add(new Entry(normalize(name.lastName()), name.id()));
+        }
+        if (name.firstName() != null && name.lastName() != null) {
+            entries.add(new Entry(normalize(name.firstName() + " " + name.lastName()), name.id()));
+        }
+    }
+
+    private record Entry(String key, UUID userId) {
+    }
+
+    private record State(Snapshot snapshot, Set<UUID> changed, NavigableSet<Entry> entries) {
+
+        private static State of(Snapshot snapshot) {
+            return new State(snapshot, ConcurrentHashMap.newKeySet(), new ConcurrentSkipListSet<>(ENTRY_ORDER));
+        }
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new long[0], new long[0], 0);
+
+        private final String[] keys;
+        private final long[] mostSigBits;
+        private final long[] leastSigBits;
+        private final int size;
+
+        private Snapshot(String[] keys, long[] mostSigBits, long[] leastSigBits, int size) {
+            this.keys = keys;
+            this.mostSigBits = mostSigBits;
+            this.leastSigBits = leastSigBits;
+            this.size = size;
+        }
+
+        private static Snapshot of(List<Entry> entries) {
+            int size = entries.size();
+            String[] keys = new String[size];
+            long[] mostSigBits = new long[size];
+            long[] leastSigBits = new long[size];
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                keys[i] = entry.key();
+                mostSigBits[i] = entry.userId().getMostSignificantBits();
+                leastSigBits[i] = entry.userId().getLeastSignificantBits();
+            }
+            return new Snapshot(keys, mostSigBits, leastSigBits, size);
+        }
+
+        private int lowerBound(String key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && keys[index - 1].equals(key)) {
+                index--;
+            }
+            return index;
+        }
+
+        private UUID userId(int index) {
+            return new UUID(mostSigBits[index], leastSigBits[index]);
+        }
+    }
+}
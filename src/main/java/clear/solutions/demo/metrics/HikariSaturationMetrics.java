@@ -0,0 +1,39 @@
+package clear.solutions.demo.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class HikariSaturationMetrics implements MeterBinder {
+    private final List<DataSource> dataSources;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof HikariDataSource hikariDataSource) {
+                Gauge.builder("hikaricp.connections.saturation", hikariDataSource, HikariSaturationMetrics::saturation)
+                        .description("Active plus waiting threads relative to the maximum pool size")
+                        .tag("pool", String.valueOf(hikariDataSource.getPoolName()))
+                        .register(registry);
+            }
+        }
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return Double.NaN;
+        }
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection())
+                / dataSource.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,84 @@
+package clear.solutions.demo.metrics;
+
+import clear.solutions.demo.exception.DuplicateEmailException;
+import clear.solutions.demo.exception.EntityIdNotFoundException;
+import clear.solutions.demo.exception.PreconditionFailedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class UserMetricsAspect {
+    private static final String RANGE_METHOD = "findByBirthDateRange";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* clear.solutions.demo.service.UserService.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        String implementation = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            if (RANGE_METHOD.equals(method) && result instanceof Collection<?> users) {
+                DistributionSummary.builder("user.range.result.size")
+                        .description("Number of users returned by a birth-date range query")
+                        .baseUnit("users")
+                        .tag("implementation", implementation)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(users.size());
+            }
+            return result;
+        } catch (EntityIdNotFoundException e) {
+            outcome = "not_found";
+            throw e;
+        } catch (DuplicateEmailException e) {
+            outcome = "conflict";
+            throw e;
+        } catch (PreconditionFailedException e) {
+            outcome = "precondition_failed";
+            throw e;
+        } catch (ValidationException e) {
+            outcome = "validation_failure";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("user.service.calls")
+                    .description("UserService calls by method and outcome")
+                    .tag("implementation", implementation)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("target(clear.solutions.demo.repository.UserRepository)")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("user.repository.queries")
+                    .description("UserRepository calls by method")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package clear.solutions.demo.model;
+
+import java.time.LocalDate;
+
+public record BirthDateCount(LocalDate birthDate, long count) {
+}
@@ -1,28 +1,47 @@
 package clear.solutions.demo.model;
 
+import clear.solutions.demo.id.UserIdGenerator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDate;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_user_birth_date_id", columnList = "birth_date, id"),
+        @Index(name = User.EMAIL_UNIQUE_INDEX, columnList = "normalized_email", unique = true)
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
 public class User {
+    public static final String EMAIL_UNIQUE_INDEX = "uk_user_normalized_email";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "user-id")
+    @GenericGenerator(name = "user-id", type = UserIdGenerator.class)
     private UUID id;
     @Column(nullable = false)
     private String email;
+    @JsonIgnore
+    @Column(name = "normalized_email", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(trim(\"email\")))")
+    private String normalizedEmail;
     @Column(name = "first_name", nullable = false)
     private String firstName;
     @Column(name = "last_name", nullable = false)
@@ -33,4 +52,12 @@ public class User {
     private String address;
     @Column
     private String phone;
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
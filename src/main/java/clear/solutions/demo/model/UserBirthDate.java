@@ -0,0 +1,7 @@
+package clear.solutions.demo.model;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record UserBirthDate(UUID id, LocalDate birthDate) {
+}
@@ -0,0 +1,6 @@
+package clear.solutions.demo.model;
+
+import java.util.UUID;
+
+public record UserName(UUID id, String firstName, String lastName) {
+}
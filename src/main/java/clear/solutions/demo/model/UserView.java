@@ -0,0 +1,8 @@
+package clear.solutions.demo.model;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record UserView(UUID id, String email, String firstName, String lastName, LocalDate birthDate,
+                       String address, String phone, long version) {
+}
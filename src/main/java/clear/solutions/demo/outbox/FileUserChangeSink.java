@@ -0,0 +1,101 @@
+package clear.solutions.demo.outbox;
+
+import clear.solutions.demo.response.UserChange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "user.outbox", name = {"enabled", "sink.file.enabled"}, havingValue = "true")
+public class FileUserChangeSink implements UserChangeSink, DisposableBean {
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final boolean fsync;
+    private final FileChannel channel;
+
+    public FileUserChangeSink(ObjectMapper objectMapper,
+                              @Value("${user.outbox.sink.file.path}") Path file,
+                              @Value("${user.outbox.sink.file.fsync}") boolean fsync) throws IOException {
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.fsync = fsync;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void publish(List<UserChange> changes) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream(changes.size() * 128);
+            for (UserChange change : changes) {
+                lines.write(objectMapper.writeValueAsBytes(change));
+                lines.write('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long resumeAfter(long latestOffset) {
+        try {
+            String lastLine = lastLine();
+            return lastLine == null ? latestOffset : objectMapper.readValue(lastLine, UserChange.class).offset();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        channel.close();
+    }
+
+    private String lastLine() throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+            long end = in.length();
+            while (end > 0 && byteAt(in, end - 1) == '\n') {
+                end--;
+            }
+            long start = end;
+            while (start > 0 && byteAt(in, start - 1) != '\n') {
+                start--;
+            }
+            if (start == end) {
+                return null;
+            }
+            byte[] line = new byte[(int) (end - start)];
+            in.seek(start);
+            in.readFully(line);
+            return new String(line, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int byteAt(RandomAccessFile in, long position) throws IOException {
+        in.seek(position);
+        return in.read();
+    }
+}
@@ -0,0 +1,53 @@
+package clear.solutions.demo.outbox;
+
+import clear.solutions.demo.response.UserChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(prefix = "user.outbox", name = {"enabled", "sink.queue.enabled"}, havingValue = "true")
+public class QueueUserChangeSink implements UserChangeSink {
+    private final BlockingQueue<UserChange> queue;
+    private final Duration offerTimeout;
+    private long lastOffset;
+
+    public QueueUserChangeSink(@Value("${user.outbox.sink.queue.capacity}") int capacity,
+                               @Value("${user.outbox.sink.queue.offer-timeout}") Duration offerTimeout) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.offerTimeout = offerTimeout;
+    }
+
+    @Override
+    public void publish(List<UserChange> changes) {
+        try {
+            for (UserChange change : changes) {
+                if (change.offset() <= lastOffset) {
+                    continue;
+                }
+                if (!queue.offer(change, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("User change queue is full, stopped at offset " + lastOffset);
+                }
+                lastOffset = change.offset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing user changes", e);
+        }
+    }
+
+    public UserChange poll(Duration timeout) throws InterruptedException {
+        return queue.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public int drainTo(Collection<? super UserChange> target, int maxChanges) {
+        return queue.drainTo(target, maxChanges);
+    }
+}
@@ -0,0 +1,152 @@
+package clear.solutions.demo.outbox;
+
+import clear.solutions.demo.response.UserChange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "user.outbox.enabled", havingValue = "true")
+public class SseUserChangeSink implements UserChangeSink, DisposableBean {
+    private final UserOutbox userOutbox;
+    private final int batchSize;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "user-change-sse");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SseUserChangeSink(UserOutbox userOutbox,
+                             @Value("${user.outbox.batch-size}") int batchSize,
+                             @Value("${user.outbox.sse.timeout}") Duration timeout,
+                             @Value("${user.outbox.sse.buffer-size}") int bufferSize) {
+        this.userOutbox = userOutbox;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+    }
+
+    public SseEmitter subscribe(long afterOffset) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()), bufferSize, afterOffset);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(subscriber.emitter::complete);
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+        subscriber.lock.lock();
+        try {
+            subscribers.add(subscriber);
+            List<UserChange> changes;
+            do {
+                changes = userOutbox.findAfter(subscriber.sentOffset, batchSize);
+            } while (send(subscriber, changes) && changes.size() == batchSize);
+        } finally {
+            subscriber.lock.unlock();
+        }
+        schedule(subscriber);
+        return subscriber.emitter;
+    }
+
+    @Override
+    public void publish(List<UserChange> changes) {
+        for (Subscriber subscriber : subscribers) {
+            for (UserChange change : changes) {
+                if (change.offset() <= subscriber.queuedOffset) {
+                    continue;
+                }
+                if (!subscriber.backlog.offer(change)) {
+                    log.warn("Disconnecting user change subscriber that fell {} changes behind", bufferSize);
+                    disconnect(subscriber, new IllegalStateException("Subscriber fell too far behind, resume from the last event id"));
+                    break;
+                }
+                subscriber.queuedOffset = change.offset();
+            }
+            schedule(subscriber);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.backlog.isEmpty() && subscriber.scheduled.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        subscriber.lock.lock();
+        try {
+            subscriber.scheduled.set(false);
+            List<UserChange> changes = new ArrayList<>(subscriber.backlog.size());
+            subscriber.backlog.drainTo(changes);
+            send(subscriber, changes);
+        } finally {
+            subscriber.lock.unlock();
+        }
+        schedule(subscriber);
+    }
+
+    private boolean send(Subscriber subscriber, List<UserChange> changes) {
+        try {
+            for (UserChange change : changes) {
+                if (change.offset() > subscriber.sentOffset) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.offset()))
+                            .data(change, MediaType.APPLICATION_JSON));
+                    subscriber.sentOffset = change.offset();
+                }
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber, e);
+            return false;
+        }
+    }
+
+    private void disconnect(Subscriber subscriber, Throwable cause) {
+        subscribers.remove(subscriber);
+        subscriber.backlog.clear();
+        sender.execute(() -> subscriber.emitter.completeWithError(cause));
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final BlockingQueue<UserChange> backlog;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long sentOffset;
+        private long queuedOffset;
+
+        private Subscriber(SseEmitter emitter, int bufferSize, long afterOffset) {
+            this.emitter = emitter;
+            this.backlog = new ArrayBlockingQueue<>(bufferSize);
+            this.sentOffset = afterOffset;
+            this.queuedOffset = afterOffset;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package clear.solutions.demo.outbox;
+
+import clear.solutions.demo.response.UserChange;
+
+import java.util.List;
+
+public interface UserChangeSink {
+
+    void publish(List<UserChange> changes);
+
+    default long resumeAfter(long latestOffset) {
+        return latestOffset;
+    }
+}
@@ -0,0 +1,109 @@
+package clear.solutions.demo.outbox;
+
+import clear.solutions.demo.response.UserChange;
+import clear.solutions.demo.service.event.UserChangeType;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "user.outbox.enabled", havingValue = "true")
+public class UserOutbox {
+    private static final String INSERT_SQL = "INSERT INTO \"user_outbox\" (\"user_id\", \"type\", \"occurred_at\") VALUES (?, ?, ?)";
+    private static final String SELECT_UNASSIGNED_SQL = "SELECT \"id\" FROM \"user_outbox\" WHERE \"offset\" IS NULL ORDER BY \"offset\", \"id\" LIMIT ?";
+    private static final String SELECT_LATEST_OFFSET_SQL = "SELECT COALESCE(MAX(\"offset\"), 0) FROM \"user_outbox\"";
+    private static final String ASSIGN_OFFSETS_SQL = """
+            UPDATE "user_outbox" SET "offset" = "id" + ?
+            WHERE "offset" IS NULL AND "id" BETWEEN ? AND ?""";
+    private static final String SELECT_AFTER_SQL = """
+            SELECT "offset", "type", "user_id", "occurred_at" FROM "user_outbox"
+            WHERE "offset" > ? ORDER BY "offset" LIMIT ?""";
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM "user_outbox"
+            WHERE "offset" <= ? AND "occurred_at" < ?
+              AND "offset" < (SELECT MAX("offset") FROM "user_outbox")""";
+    private static final RowMapper<UserChange> USER_CHANGE_MAPPER = (resultSet, rowNumber) -> new UserChange(
+            resultSet.getLong(1),
+            UserChangeType.valueOf(resultSet.getString(2)),
+            resultSet.getObject(3, UUID.class),
+            resultSet.getObject(4, Instant.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    public UserOutbox(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        Object[] row = {event.userId(), event.type().name(), clock.instant()};
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.update(INSERT_SQL, row);
+            return;
+        }
+        TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingRows.class::isInstance)
+                .map(PendingRows.class::cast)
+                .findFirst()
+                .orElseGet(this::registerPendingRows)
+                .rows.add(row);
+    }
+
+    public int assignOffsets(int limit) {
+        Integer assigned = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_UNASSIGNED_SQL, Long.class, limit);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            long firstId = ids.get(0);
+            return jdbcTemplate.update(ASSIGN_OFFSETS_SQL, latestOffset() + 1 - firstId, firstId, ids.get(ids.size() - 1));
+        });
+        return assigned == null ? 0 : assigned;
+    }
+
+    public long latestOffset() {
+        Long offset = jdbcTemplate.queryForObject(SELECT_LATEST_OFFSET_SQL, Long.class);
+        return offset == null ? 0 : offset;
+    }
+
+    public List<UserChange> findAfter(long offset, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER_SQL, USER_CHANGE_MAPPER, offset, limit);
+    }
+
+    private PendingRows registerPendingRows() {
+        PendingRows pendingRows = new PendingRows();
+        TransactionSynchronizationManager.registerSynchronization(pendingRows);
+        return pendingRows;
+    }
+
+    public int deleteExpired(long deliveredOffset, Instant occurredBefore) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, deliveredOffset, occurredBefore);
+    }
+
+    private final class PendingRows implements TransactionSynchronization {
+        private final List<Object[]> rows = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package clear.solutions.demo.outbox;
+
+import clear.solutions.demo.response.UserChange;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "user.outbox.enabled", havingValue = "true")
+public class UserOutboxRelay implements SmartInitializingSingleton, DisposableBean {
+    private final UserOutbox userOutbox;
+    private final List<SinkCursor> cursors;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final Duration purgeInterval;
+    private final AtomicBoolean relayRequested = new AtomicBoolean();
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final ScheduledExecutorService relayer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UserOutboxRelay(UserOutbox userOutbox, List<UserChangeSink> sinks, Clock clock,
+                           @Value("${user.outbox.batch-size}") int batchSize,
+                           @Value("${user.outbox.poll-interval}") Duration pollInterval,
+                           @Value("${user.outbox.retention}") Duration retention,
+                           @Value("${user.outbox.purge-interval}") Duration purgeInterval) {
+        this.userOutbox = userOutbox;
+        this.cursors = sinks.stream().map(SinkCursor::new).toList();
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.purgeInterval = purgeInterval;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long latestOffset = userOutbox.latestOffset();
+        cursors.forEach(cursor -> cursor.deliveredOffset = Math.min(cursor.sink.resumeAfter(latestOffset), latestOffset));
+        relayer.scheduleWithFixedDelay(this::relayQuietly,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        relayer.scheduleWithFixedDelay(this::purgeQuietly,
+                purgeInterval.toMillis(), purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (relayRequested.compareAndSet(false, true)) {
+            relayer.execute(this::relayQuietly);
+        }
+    }
+
+    public int relay() {
+        relayLock.lock();
+        try {
+            relayRequested.set(false);
+            int relayed = 0;
+            Set<SinkCursor> failed = new HashSet<>();
+            while (true) {
+                int assigned = userOutbox.assignOffsets(batchSize);
+                Map<Long, List<UserChange>> batches = new HashMap<>();
+                int delivered = 0;
+                boolean behind = false;
+                for (SinkCursor cursor : cursors) {
+                    if (failed.contains(cursor)) {
+                        continue;
+                    }
+                    List<UserChange> changes = batches.computeIfAbsent(cursor.deliveredOffset,
+                            offset -> userOutbox.findAfter(offset, batchSize));
+                    if (changes.isEmpty()) {
+                        continue;
+                    }
+                    if (deliver(cursor, changes)) {
+                        delivered = Math.max(delivered, changes.size());
+                        behind |= changes.size() == batchSize;
+                    } else {
+                        failed.add(cursor);
+                    }
+                }
+                relayed += delivered;
+                if (assigned < batchSize && !behind) {
+                    return relayed;
+                }
+            }
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    public long deliveredOffset() {
+        return cursors.stream()
+                .mapToLong(cursor -> cursor.deliveredOffset)
+                .min()
+                .orElseGet(userOutbox::latestOffset);
+    }
+
+    public int purge() {
+        return userOutbox.deleteExpired(deliveredOffset(), clock.instant().minus(retention));
+    }
+
+    @Override
+    public void destroy() {
+        relayer.shutdown();
+        try {
+            relayer.awaitTermination(pollInterval.toMillis() + 10_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        relayQuietly();
+    }
+
+    private boolean deliver(SinkCursor cursor, List<UserChange> changes) {
+        try {
+            cursor.sink.publish(changes);
+            cursor.deliveredOffset = changes.get(changes.size() - 1).offset();
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to deliver user changes to {}, will retry from offset {}",
+                    cursor.sink.getClass().getSimpleName(), cursor.deliveredOffset, e);
+            return false;
+        }
+    }
+
+    private void relayQuietly() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.error("Failed to relay user changes, will retry from offset {}", deliveredOffset(), e);
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.error("Failed to purge relayed user changes", e);
+        }
+    }
+
+    private static final class SinkCursor {
+        private final UserChangeSink sink;
+        private volatile long deliveredOffset;
+
+        private SinkCursor(UserChangeSink sink) {
+            this.sink = sink;
+        }
+    }
+}
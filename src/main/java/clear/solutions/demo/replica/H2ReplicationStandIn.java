@@ -0,0 +1,115 @@
+package clear.solutions.demo.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "user.datasource.replica.enabled", havingValue = "true")
+public class H2ReplicationStandIn implements SmartInitializingSingleton, DisposableBean {
+    private static final String COLUMNS = "\"id\", \"email\", \"first_name\", \"last_name\", \"birth_date\", \"address\", \"phone\", \"version\"";
+    private static final String SELECT_ROW_SQL = "SELECT " + COLUMNS + " FROM \"user\" WHERE \"id\" = ?";
+    private static final String MERGE_ROW_SQL = "MERGE INTO \"user\" (" + COLUMNS + ") KEY (\"id\") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_ROW_SQL = "DELETE FROM \"user\" WHERE \"id\" = ?";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaLagTracker replicaLagTracker;
+    private final Clock clock;
+    private final Duration lag;
+    private final Duration pollInterval;
+    private final ReentrantLock replicationLock = new ReentrantLock();
+    private final ScheduledExecutorService replicator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-stand-in");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public H2ReplicationStandIn(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                ReplicaLagTracker replicaLagTracker, Clock clock,
+                                @Value("${user.datasource.replica.stand-in.lag}") Duration lag,
+                                @Value("${user.datasource.replica.stand-in.poll-interval}") Duration pollInterval) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replicaLagTracker = replicaLagTracker;
+        this.clock = clock;
+        this.lag = lag;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> script = primary.queryForList("SCRIPT NOPASSWORDS NOSETTINGS TABLE \"user\"", String.class);
+        replica.execute("DROP TABLE IF EXISTS \"user\"");
+        script.stream()
+                .filter(statement -> !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+        replicator.scheduleWithFixedDelay(this::replicateQuietly,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void catchUp() {
+        replicate(Instant.MAX);
+    }
+
+    @Override
+    public void destroy() {
+        replicator.shutdownNow();
+    }
+
+    private void replicateQuietly() {
+        try {
+            replicate(clock.instant().minus(lag));
+        } catch (RuntimeException e) {
+            log.error("Failed to replicate user changes, will retry", e);
+        }
+    }
+
+    private void replicate(Instant committedBefore) {
+        replicationLock.lock();
+        try {
+            for (ReplicaLagTracker.PendingChange change : replicaLagTracker.pendingChanges()) {
+                if (change.committedAt().isAfter(committedBefore)) {
+                    break;
+                }
+                copyRow(change.userId());
+                replicaLagTracker.acknowledge(change.position());
+            }
+        } finally {
+            replicationLock.unlock();
+        }
+    }
+
+    private void copyRow(UUID userId) {
+        List<Object[]> rows = primary.query(SELECT_ROW_SQL, (resultSet, rowNumber) -> {
+            Object[] row = new Object[8];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            return row;
+        }, userId);
+        if (rows.isEmpty()) {
+            replica.update(DELETE_ROW_SQL, userId);
+        } else {
+            replica.update(MERGE_ROW_SQL, rows.get(0));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package clear.solutions.demo.replica;
+
+import clear.solutions.demo.service.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@ConditionalOnProperty(name = "user.datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagTracker {
+    private final Clock clock;
+    private final Duration maxLag;
+    private final AtomicLong position = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, PendingChange> pending = new ConcurrentSkipListMap<>();
+
+    public ReplicaLagTracker(Clock clock, @Value("${user.datasource.replica.max-lag}") Duration maxLag) {
+        this.clock = clock;
+        this.maxLag = maxLag;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        long changePosition = position.incrementAndGet();
+        pending.put(changePosition, new PendingChange(changePosition, event.userId(),
+                event.birthDate(), event.previousBirthDate(), clock.instant()));
+    }
+
+    public Collection<PendingChange> pendingChanges() {
+        return pending.values();
+    }
+
+    public void acknowledge(long changePosition) {
+        pending.remove(changePosition);
+    }
+
+    public boolean isReplicaFresh(UUID userId) {
+        return !isLagging() && pending.values().stream().noneMatch(change -> change.userId().equals(userId));
+    }
+
+    public boolean isReplicaFresh(LocalDate fromDate, LocalDate toDate) {
+        return !isLagging() && pending.values().stream().noneMatch(change -> change.touches(fromDate, toDate));
+    }
+
+    public boolean isLagging() {
+        Map.Entry<Long, PendingChange> oldest = pending.firstEntry();
+        return oldest != null && oldest.getValue().committedAt().plus(maxLag).isBefore(clock.instant());
+    }
+
+    public record PendingChange(long position, UUID userId, LocalDate birthDate, LocalDate previousBirthDate,
+                                Instant committedAt) {
+
+        boolean touches(LocalDate fromDate, LocalDate toDate) {
+            if (birthDate == null && previousBirthDate == null) {
+                return true;
+            }
+            return contains(fromDate, toDate, birthDate) || contains(fromDate, toDate, previousBirthDate);
+        }
+
+        private static boolean contains(LocalDate fromDate, LocalDate toDate, LocalDate birthDate) {
+            return birthDate != null
+                    && (fromDate == null || !birthDate.isBefore(fromDate))
+                    && (toDate == null || !birthDate.isAfter(toDate));
+        }
+    }
+}
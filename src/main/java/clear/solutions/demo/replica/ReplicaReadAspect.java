@@ -0,0 +1,38 @@
+package clear.solutions.demo.replica;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Aspect
+@Component
+@ConditionalOnProperty(name = "user.datasource.replica.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReplicaReadAspect {
+    private final ReplicaLagTracker replicaLagTracker;
+
+    @Around("execution(* clear.solutions.demo.service.UserService.findById(..)) && args(userId)")
+    public Object readUser(ProceedingJoinPoint joinPoint, UUID userId) throws Throwable {
+        return proceed(joinPoint, replicaLagTracker.isReplicaFresh(userId));
+    }
+
+    @Around("execution(* clear.solutions.demo.service.UserService.*ByBirthDateRange(..)) && args(fromDate, toDate, ..)")
+    public Object readRange(ProceedingJoinPoint joinPoint, LocalDate fromDate, LocalDate toDate) throws Throwable {
+        return proceed(joinPoint, replicaLagTracker.isReplicaFresh(fromDate, toDate));
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint, boolean replicaAllowed) throws Throwable {
+        Boolean previous = ReplicaRoutingDataSource.allowReplica(replicaAllowed);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.allowReplica(previous);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package clear.solutions.demo.repository;
+
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.request.UserRangeCursor;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+    private static final String SELECT_USER = """
+            SELECT "id", "email", "first_name", "last_name", "birth_date", "address", "phone", "version"
+            FROM "user"
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<UserView> insert(UserView user) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        INSERT INTO "user" ("id", "email", "first_name", "last_name", "birth_date", "address", "phone", "version")
+                        VALUES (:id, :email, :firstName, :lastName, :birthDate, :address, :phone, 0)""")
+                .bind("id", user.id());
+        return bindUserColumns(spec, user)
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(user);
+    }
+
+    public Flux<LocalDate> update(UserView user) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        SELECT "birth_date" FROM OLD TABLE (
+                            UPDATE "user"
+                            SET "email" = :email, "first_name" = :firstName, "last_name" = :lastName,
+                                "birth_date" = :birthDate, "address" = :address, "phone" = :phone,
+                                "version" = "version" + 1
+                            WHERE "id" = :id)""")
+                .bind("id", user.id());
+        return bindUserColumns(spec, user)
+                .map(row -> row.get("birth_date", LocalDate.class))
+                .all();
+    }
+
+    public Mono<Long> updateEmail(UUID id, String email) {
+        return databaseClient.sql("UPDATE \"user\" SET \"email\" = :email, \"version\" = \"version\" + 1 WHERE \"id\" = :id")
+                .bind("id", id)
+                .bind("email", email)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Flux<LocalDate> delete(UUID id) {
+        return databaseClient.sql("SELECT \"birth_date\" FROM OLD TABLE (DELETE FROM \"user\" WHERE \"id\" = :id)")
+                .bind("id", id)
+                .map(row -> row.get("birth_date", LocalDate.class))
+                .all();
+    }
+
+    public Mono<UserView> findById(UUID id) {
+        return databaseClient.sql(SELECT_USER + "WHERE \"id\" = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::mapUserView)
+                .one();
+    }
+
+    public Flux<UserView> findByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        return databaseClient.sql(SELECT_USER + """
+                        WHERE "birth_date" >= :fromDate AND "birth_date" <= :toDate
+                        ORDER BY "birth_date", "id\"""")
+                .bind("fromDate", fromDate)
+                .bind("toDate", toDate)
+                .map(ReactiveUserRepository::mapUserView)
+                .all();
+    }
+
+    public Flux<UserView> findPageByBirthDateRange(LocalDate fromDate, LocalDate toDate, UserRangeCursor after, int limit) {
+        if (after == null) {
+            return databaseClient.sql(SELECT_USER + """
+                            WHERE "birth_date" >= :fromDate AND "birth_date" <= :toDate
+                            ORDER BY "birth_date", "id"
+                            LIMIT :limit""")
+                    .bind("fromDate", fromDate)
+                    .bind("toDate", toDate)
+                    .bind("limit", limit)
+                    .map(ReactiveUserRepository::mapUserView)
+                    .all();
+        }
+        return databaseClient.sql(SELECT_USER + """
+                        WHERE "birth_date" <= :toDate
+                          AND ("birth_date" > :afterBirthDate OR ("birth_date" = :afterBirthDate AND "id" > :afterId))
+                        ORDER BY "birth_date", "id"
+                        LIMIT :limit""")
+                .bind("toDate", toDate)
+                .bind("afterBirthDate", after.birthDate())
+                .bind("afterId", after.id())
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::mapUserView)
+                .all();
+    }
+
+    public Flux<String> findExistingNormalizedEmails(Collection<String> normalizedEmails) {
+        return databaseClient.sql("SELECT \"normalized_email\" FROM \"user\" WHERE \"normalized_email\" IN (:normalizedEmails)")
+                .bind("normalizedEmails", normalizedEmails)
+                .map(row -> row.get("normalized_email", String.class))
+                .all();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindUserColumns(DatabaseClient.GenericExecuteSpec spec, UserView user) {
+        spec = spec.bind("email", user.email())
+                .bind("firstName", user.firstName())
+                .bind("lastName", user.lastName())
+                .bind("birthDate", user.birthDate());
+        spec = user.address() == null ? spec.bindNull("address", String.class) : spec.bind("address", user.address());
+        return user.phone() == null ? spec.bindNull("phone", String.class) : spec.bind("phone", user.phone());
+    }
+
+    private static UserView mapUserView(Readable row) {
+        return new UserView(
+                row.get("id", UUID.class),
+                row.get("email", String.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("birth_date", LocalDate.class),
+                row.get("address", String.class),
+                row.get("phone", String.class),
+                row.get("version", Long.class));
+    }
+}
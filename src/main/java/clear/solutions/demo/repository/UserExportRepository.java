@@ -0,0 +1,45 @@
+package clear.solutions.demo.repository;
+
+import clear.solutions.demo.export.UserRowWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class UserExportRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserExportRepository(DataSource dataSource, @Value("${user.export.fetch-size}") int fetchSize) {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void exportByBirthDateRange(LocalDate fromDate, LocalDate toDate, UserRowWriter writer) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(UserRowWriter.SELECT_COLUMNS).append(" FROM \"user\"");
+        List<Object> arguments = new ArrayList<>(2);
+        if (fromDate != null) {
+            sql.append(" WHERE \"birth_date\" >= ?");
+            arguments.add(fromDate);
+        }
+        if (toDate != null) {
+            sql.append(arguments.isEmpty() ? " WHERE" : " AND").append(" \"birth_date\" <= ?");
+            arguments.add(toDate);
+        }
+        sql.append(" ORDER BY \"birth_date\", \"id\"");
+
+        jdbcTemplate.query(sql.toString(), resultSet -> {
+            try {
+                writer.writeRow(resultSet);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, arguments.toArray());
+    }
+}
@@ -1,14 +1,126 @@
 package clear.solutions.demo.repository;
 
+import clear.solutions.demo.model.BirthDateCount;
 import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserBirthDate;
+import clear.solutions.demo.model.UserName;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.response.UserNameMatch;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-    List<User> findByBirthDateGreaterThanEqualAndBirthDateLessThanEqual(LocalDate fromDate, LocalDate toDate);
+public interface UserRepository extends JpaRepository<User, UUID>, UserWriteRepository {
+    String USER_VIEW_SELECT = """
+            select new clear.solutions.demo.model.UserView(
+                u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phone, u.version)
+            from User u
+            """;
+
+    @Query(USER_VIEW_SELECT + "where u.id = :id")
+    Optional<UserView> findViewById(@Param("id") UUID id);
+
+    @Query(USER_VIEW_SELECT + "where u.normalizedEmail = :normalizedEmail")
+    Optional<UserView> findViewByNormalizedEmail(@Param("normalizedEmail") String normalizedEmail);
+
+    @Query("select u.normalizedEmail from User u where u.normalizedEmail in :normalizedEmails")
+    Set<String> findExistingNormalizedEmails(@Param("normalizedEmails") Collection<String> normalizedEmails);
+
+    boolean existsByNormalizedEmailAndIdNot(String normalizedEmail, UUID id);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("select new clear.solutions.demo.model.UserName(u.id, u.firstName, u.lastName) from User u")
+    Stream<UserName> streamNames();
+
+    @Query("""
+            select new clear.solutions.demo.response.UserNameMatch(u.id, u.firstName, u.lastName)
+            from User u
+            where lower(u.firstName) like :prefix escape '\\'
+               or lower(u.lastName) like :prefix escape '\\'
+               or lower(concat(u.firstName, ' ', u.lastName)) like :prefix escape '\\'
+            order by lower(u.firstName), lower(u.lastName), u.id""")
+    List<UserNameMatch> findNameMatchesByPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query(USER_VIEW_SELECT + "where u.id in :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(USER_VIEW_SELECT + """
+            where u.birthDate >= :fromDate and u.birthDate <= :toDate
+            order by u.birthDate, u.id""")
+    List<UserView> findViewsByBirthDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query(USER_VIEW_SELECT + """
+            where u.birthDate >= :fromDate and u.birthDate <= :toDate
+            order by u.birthDate, u.id""")
+    List<UserView> findFirstPageByBirthDateRange(@Param("fromDate") LocalDate fromDate,
+                                             @Param("toDate") LocalDate toDate,
+                                             Pageable pageable);
+
+    @Query(USER_VIEW_SELECT + """
+            where u.birthDate <= :toDate
+              and (u.birthDate > :afterBirthDate or (u.birthDate = :afterBirthDate and u.id > :afterId))
+            order by u.birthDate, u.id""")
+    List<UserView> findNextPageByBirthDateRange(@Param("toDate") LocalDate toDate,
+                                            @Param("afterBirthDate") LocalDate afterBirthDate,
+                                            @Param("afterId") UUID afterId,
+                                            Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(USER_VIEW_SELECT + """
+            where u.birthDate >= :fromDate and u.birthDate <= :toDate
+            order by u.birthDate, u.id""")
+    Stream<UserView> streamByBirthDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("select new clear.solutions.demo.model.UserBirthDate(u.id, u.birthDate) from User u order by u.birthDate, u.id")
+    Stream<UserBirthDate> streamBirthDates();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+            select new clear.solutions.demo.model.UserBirthDate(u.id, u.birthDate)
+            from User u
+            where u.birthDate >= :fromDate and u.birthDate <= :toDate
+            order by u.birthDate, u.id""")
+    Stream<UserBirthDate> streamBirthDatesByRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query("""
+            select new clear.solutions.demo.model.BirthDateCount(u.birthDate, count(u))
+            from User u
+            where u.birthDate >= :fromDate and u.birthDate <= :toDate
+            group by u.birthDate
+            order by u.birthDate""")
+    List<BirthDateCount> countByBirthDate(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.email = :email, u.version = u.version + 1 where u.id = :id")
+    int updateEmailById(@Param("id") UUID id, @Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.email = :email, u.version = u.version + 1 where u.id = :id and u.version = :version")
+    int updateEmailByIdAndVersion(@Param("id") UUID id, @Param("version") long version, @Param("email") String email);
+
+    @Query("""
+            select new clear.solutions.demo.model.BirthDateCount(u.birthDate, count(u))
+            from User u
+            group by u.birthDate""")
+    List<BirthDateCount> countAllByBirthDate();
 }
@@ -0,0 +1,22 @@
+package clear.solutions.demo.repository;
+
+import clear.solutions.demo.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface UserWriteRepository {
+    void insertAll(List<User> users);
+
+    List<LocalDate> updateById(UUID id, User user);
+
+    List<LocalDate> updateByIdAndVersion(UUID id, long version, User user);
+
+    List<LocalDate> patchById(UUID id, Map<String, Object> changes, Long expectedVersion);
+
+    int[] updateEmailsById(Map<UUID, String> emails);
+
+    List<LocalDate> removeById(UUID id);
+}
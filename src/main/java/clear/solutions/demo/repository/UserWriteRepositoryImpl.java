@@ -0,0 +1,117 @@
+package clear.solutions.demo.repository;
+
+import clear.solutions.demo.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class UserWriteRepositoryImpl implements UserWriteRepository {
+    private static final Map<String, String> COLUMNS = Map.of(
+            "email", "email",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "birthDate", "birth_date",
+            "address", "address",
+            "phone", "phone");
+    private static final String UPDATE_EMAIL_SQL = "UPDATE \"user\" SET \"email\" = ?, \"version\" = \"version\" + 1 WHERE \"id\" = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void insertAll(List<User> users) {
+        users.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    @Transactional
+    public List<LocalDate> updateById(UUID id, User user) {
+        return patchById(id, changesOf(user), null);
+    }
+
+    @Override
+    @Transactional
+    public List<LocalDate> updateByIdAndVersion(UUID id, long version, User user) {
+        return patchById(id, changesOf(user), version);
+    }
+
+    @Override
+    @Transactional
+    public List<LocalDate> patchById(UUID id, Map<String, Object> changes, Long expectedVersion) {
+        StringBuilder sql = new StringBuilder("SELECT \"birth_date\" FROM OLD TABLE (UPDATE \"user\" SET ");
+        List<Object> arguments = new ArrayList<>(changes.size() + 2);
+        changes.forEach((attribute, value) -> {
+            String column = COLUMNS.get(attribute);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown user attribute " + attribute);
+            }
+            sql.append('"').append(column).append("\" = ?, ");
+            arguments.add(value);
+        });
+        sql.append("\"version\" = \"version\" + 1 WHERE \"id\" = ?");
+        arguments.add(id);
+        if (expectedVersion != null) {
+            sql.append(" AND \"version\" = ?");
+            arguments.add(expectedVersion);
+        }
+        sql.append(')');
+
+        Query query = entityManager.createNativeQuery(sql.toString(), LocalDate.class);
+        for (int i = 0; i < arguments.size(); i++) {
+            query.setParameter(i + 1, arguments.get(i));
+        }
+        return previousBirthDates(query);
+    }
+
+    @Override
+    @Transactional
+    public int[] updateEmailsById(Map<UUID, String> emails) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_EMAIL_SQL)) {
+                for (Map.Entry<UUID, String> email : emails.entrySet()) {
+                    statement.setString(1, email.getValue());
+                    statement.setObject(2, email.getKey());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<LocalDate> removeById(UUID id) {
+        return previousBirthDates(entityManager
+                .createNativeQuery("SELECT \"birth_date\" FROM OLD TABLE (DELETE FROM \"user\" WHERE \"id\" = ?)", LocalDate.class)
+                .setParameter(1, id));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<LocalDate> previousBirthDates(Query query) {
+        return query.getResultList();
+    }
+
+    private static Map<String, Object> changesOf(User user) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("email", user.getEmail());
+        changes.put("firstName", user.getFirstName());
+        changes.put("lastName", user.getLastName());
+        changes.put("birthDate", user.getBirthDate());
+        changes.put("address", user.getAddress());
+        changes.put("phone", user.getPhone());
+        return changes;
+    }
+}
@@ -0,0 +1,34 @@
+package clear.solutions.demo.request;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum BirthDateBucket {
+    DAY {
+        @Override
+        LocalDate nextStart(LocalDate date) {
+            return date.plusDays(1);
+        }
+    },
+    WEEK {
+        @Override
+        LocalDate nextStart(LocalDate date) {
+            return date.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        }
+    },
+    MONTH {
+        @Override
+        LocalDate nextStart(LocalDate date) {
+            return date.with(TemporalAdjusters.firstDayOfNextMonth());
+        }
+    },
+    YEAR {
+        @Override
+        LocalDate nextStart(LocalDate date) {
+            return date.with(TemporalAdjusters.firstDayOfNextYear());
+        }
+    };
+
+    abstract LocalDate nextStart(LocalDate date);
+}
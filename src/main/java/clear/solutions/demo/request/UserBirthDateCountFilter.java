@@ -0,0 +1,65 @@
+package clear.solutions.demo.request;
+
+import clear.solutions.demo.cache.BirthDateRange;
+import jakarta.validation.constraints.AssertTrue;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserBirthDateCountFilter {
+    public static final int MAX_RANGES = 10_000;
+    private static final String RANGE_SEPARATOR = "/";
+
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private BirthDateBucket bucket;
+    private List<String> range = new ArrayList<>();
+    private boolean includeIds;
+    private boolean parallel;
+
+    public List<BirthDateRange> toRanges() {
+        List<BirthDateRange> ranges = new ArrayList<>();
+        for (String value : range) {
+            int separatorIndex = value.indexOf(RANGE_SEPARATOR);
+            ranges.add(new BirthDateRange(LocalDate.parse(value.substring(0, separatorIndex)),
+                    LocalDate.parse(value.substring(separatorIndex + 1))));
+        }
+        if (bucket != null) {
+            for (LocalDate start = fromDate; !start.isAfter(toDate) && ranges.size() <= MAX_RANGES;
+                 start = bucket.nextStart(start)) {
+                LocalDate end = bucket.nextStart(start).minusDays(1);
+                ranges.add(new BirthDateRange(start, end.isAfter(toDate) ? toDate : end));
+            }
+        }
+        return ranges;
+    }
+
+    @AssertTrue(message = "Either range values or fromDate, toDate and bucket must be provided")
+    private boolean isValidSelection() {
+        boolean bucketed = fromDate != null && toDate != null && bucket != null;
+        boolean bucketPartiallySet = fromDate != null || toDate != null || bucket != null;
+        return range.isEmpty() ? bucketed : !bucketPartiallySet;
+    }
+
+    @AssertTrue(message = "Date ranges are not valid")
+    private boolean isValidRanges() {
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            return false;
+        }
+        try {
+            List<BirthDateRange> ranges = toRanges();
+            return ranges.size() <= MAX_RANGES
+                    && ranges.stream().noneMatch(value -> value.fromDate().isAfter(value.toDate()));
+        } catch (DateTimeParseException | IndexOutOfBoundsException | NullPointerException e) {
+            return false;
+        }
+    }
+}
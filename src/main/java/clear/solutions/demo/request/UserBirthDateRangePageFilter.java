@@ -0,0 +1,17 @@
+package clear.solutions.demo.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserBirthDateRangePageFilter extends UserBirthDateRangeFilter {
+    @Min(1)
+    @Max(1000)
+    private int size = 100;
+    private String continuationToken;
+}
@@ -0,0 +1,30 @@
+package clear.solutions.demo.request;
+
+import clear.solutions.demo.exception.PreconditionFailedException;
+
+public record UserETag(long version) {
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    public String encode() {
+        return "\"" + version + "\"";
+    }
+
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith(WEAK_PREFIX)) {
+            throw new PreconditionFailedException("Weak entity tags cannot be used with If-Match");
+        }
+        try {
+            if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+                throw new NumberFormatException(tag);
+            }
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the current user version");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package clear.solutions.demo.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEmailUpdate {
+    @NotNull
+    private UUID userId;
+    @Email
+    @NotBlank
+    private String email;
+}
@@ -0,0 +1,25 @@
+package clear.solutions.demo.request;
+
+import clear.solutions.demo.export.UserExportFormat;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserExportFilter {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    @NotNull
+    private UserExportFormat format = UserExportFormat.BINARY;
+
+    @AssertTrue(message = "Date range is not valid")
+    private boolean isValidDateRange() {
+        return fromDate == null || toDate == null || !fromDate.isAfter(toDate);
+    }
+}
@@ -0,0 +1,51 @@
+package clear.solutions.demo.request;
+
+import clear.solutions.demo.exception.InvalidPatchException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+public record UserPatchRequest(UserModificationRequest values, Set<String> fields) {
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "email", "firstName", "lastName", "birthDate", "address", "phone");
+
+    public static UserPatchRequest fromMergePatch(ObjectNode patch, ObjectMapper objectMapper) throws JsonProcessingException {
+        Set<String> fields = new LinkedHashSet<>();
+        patch.fieldNames().forEachRemaining(fields::add);
+        for (String field : fields) {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new InvalidPatchException("Field '" + field + "' cannot be patched");
+            }
+        }
+        return new UserPatchRequest(objectMapper.treeToValue(patch, UserModificationRequest.class), fields);
+    }
+
+    public boolean contains(String field) {
+        return fields.contains(field);
+    }
+
+    public Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String field : fields) {
+            changes.put(field, value(field));
+        }
+        return changes;
+    }
+
+    private Object value(String field) {
+        return switch (field) {
+            case "email" -> values.getEmail();
+            case "firstName" -> values.getFirstName();
+            case "lastName" -> values.getLastName();
+            case "birthDate" -> values.getBirthDate();
+            case "address" -> values.getAddress();
+            case "phone" -> values.getPhone();
+            default -> throw new InvalidPatchException("Field '" + field + "' cannot be patched");
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package clear.solutions.demo.request;
+
+import clear.solutions.demo.exception.InvalidContinuationTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+public record UserRangeCursor(LocalDate birthDate, UUID id) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = birthDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserRangeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new UserRangeCursor(LocalDate.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidContinuationTokenException("Continuation token is not valid");
+        }
+    }
+}
@@ -5,22 +5,53 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.util.Optional;
 
 public class BirthDateValidator implements ConstraintValidator<BirthDate, LocalDate> {
 
-    @Value("${user.age.restriction}")
-    private int ageRestriction;
+    private final int ageRestriction;
+    private final Clock clock;
+    private volatile Cutoff cutoff = Cutoff.EXPIRED;
+
+    public BirthDateValidator(@Value("${user.age.restriction}") int ageRestriction, Clock clock) {
+        this.ageRestriction = ageRestriction;
+        this.clock = clock;
+    }
 
     @Override
     public boolean isValid(LocalDate value, ConstraintValidatorContext context) {
-        return Optional.ofNullable(value)
-                .map(date -> {
-                    formatMessage(context);
-                    return date.plusYears(ageRestriction).isBefore(LocalDate.now());
-                })
-                .orElse(false);
+        if (value != null && value.toEpochDay() <= currentCutoff().latestValidEpochDay()) {
+            return true;
+        }
+        formatMessage(context);
+        return false;
+    }
+
+    private Cutoff currentCutoff() {
+        Cutoff current = cutoff;
+        if (clock.millis() >= current.expiresAtMillis()) {
+            current = computeCutoff();
+            cutoff = current;
+        }
+        return current;
+    }
+
+    public static LocalDate latestValidBirthDate(LocalDate today, int ageRestriction) {
+        LocalDate latestValid = today.minusYears(ageRestriction);
+        while (!latestValid.plusYears(ageRestriction).isBefore(today)) {
+            latestValid = latestValid.minusDays(1);
+        }
+        while (latestValid.plusDays(1).plusYears(ageRestriction).isBefore(today)) {
+            latestValid = latestValid.plusDays(1);
+        }
+        return latestValid;
+    }
+
+    private Cutoff computeCutoff() {
+        LocalDate today = LocalDate.now(clock);
+        long expiresAtMillis = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        return new Cutoff(latestValidBirthDate(today, ageRestriction).toEpochDay(), expiresAtMillis);
     }
 
     private void formatMessage(ConstraintValidatorContext context) {
@@ -29,4 +60,8 @@ public class BirthDateValidator implements ConstraintValidator<BirthDate, LocalD
         context.disableDefaultConstraintViolation();
         context.buildConstraintViolationWithTemplate(formattedMsg).addConstraintViolation();
     }
-}
\ No newline at end of file
+
+    private record Cutoff(long latestValidEpochDay, long expiresAtMillis) {
+        private static final Cutoff EXPIRED = new Cutoff(Long.MIN_VALUE, Long.MIN_VALUE);
+    }
+}
@@ -0,0 +1,7 @@
+package clear.solutions.demo.response;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public record AgeCohortCounts(LocalDate asOf, long total, Map<Integer, Long> atLeastAge) {
+}
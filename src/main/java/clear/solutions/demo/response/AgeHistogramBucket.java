@@ -0,0 +1,4 @@
+package clear.solutions.demo.response;
+
+public record AgeHistogramBucket(int age, long count) {
+}
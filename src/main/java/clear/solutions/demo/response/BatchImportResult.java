@@ -0,0 +1,6 @@
+package clear.solutions.demo.response;
+
+import java.util.List;
+
+public record BatchImportResult(long createdCount, List<BatchItemError> errors) {
+}
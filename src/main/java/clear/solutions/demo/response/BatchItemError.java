@@ -0,0 +1,6 @@
+package clear.solutions.demo.response;
+
+import java.util.List;
+
+public record BatchItemError(long index, List<String> messages) {
+}
@@ -0,0 +1,11 @@
+package clear.solutions.demo.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BirthDateRangeCount(LocalDate fromDate, LocalDate toDate, long count, List<UUID> ids) {
+}
@@ -0,0 +1,9 @@
+package clear.solutions.demo.response;
+
+import clear.solutions.demo.service.event.UserChangeType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record UserChange(long offset, UserChangeType type, UUID userId, Instant occurredAt) {
+}
@@ -0,0 +1,6 @@
+package clear.solutions.demo.response;
+
+import java.util.UUID;
+
+public record UserNameMatch(UUID id, String firstName, String lastName) {
+}
@@ -0,0 +1,8 @@
+package clear.solutions.demo.response;
+
+import clear.solutions.demo.model.UserView;
+
+import java.util.List;
+
+public record UserPage(List<UserView> users, String continuationToken) {
+}
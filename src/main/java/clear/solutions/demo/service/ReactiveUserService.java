@@ -0,0 +1,29 @@
+package clear.solutions.demo.service;
+
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.response.BatchImportResult;
+import clear.solutions.demo.response.UserPage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface ReactiveUserService {
+    Mono<UserView> createUser(UserModificationRequest userModificationRequest);
+
+    Mono<BatchImportResult> importUsers(Flux<UserModificationRequest> userModificationRequests);
+
+    Mono<Void> updateUser(UUID userId, UserModificationRequest userModificationRequest);
+
+    Mono<Void> updateUserEmail(UUID userId, String email);
+
+    Mono<Void> deleteUserById(UUID userId);
+
+    Mono<UserView> findById(UUID userId);
+
+    Flux<UserView> findByBirthDateRange(LocalDate fromDate, LocalDate toDate);
+
+    Mono<UserPage> findPageByBirthDateRange(LocalDate fromDate, LocalDate toDate, String continuationToken, int size);
+}
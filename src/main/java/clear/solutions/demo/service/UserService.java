@@ -1,20 +1,65 @@
 package clear.solutions.demo.service;
 
+import clear.solutions.demo.cache.BirthDateRange;
+import clear.solutions.demo.export.UserRowWriter;
 import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.request.UserEmailUpdate;
 import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.request.UserPatchRequest;
+import clear.solutions.demo.response.AgeCohortCounts;
+import clear.solutions.demo.response.AgeHistogramBucket;
+import clear.solutions.demo.response.BatchImportResult;
+import clear.solutions.demo.response.BirthDateRangeCount;
+import clear.solutions.demo.response.UserNameMatch;
+import clear.solutions.demo.response.UserPage;
 
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface UserService {
     User createUser(UserModificationRequest userModificationRequest);
 
-    void updateUser(UUID userId, UserModificationRequest userModificationRequest);
+    BatchImportResult importUsers(Iterator<UserModificationRequest> userModificationRequests);
 
-    void updateUserEmail(UUID userId, String email);
+    default void updateUser(UUID userId, UserModificationRequest userModificationRequest) {
+        updateUser(userId, userModificationRequest, null);
+    }
+
+    void updateUser(UUID userId, UserModificationRequest userModificationRequest, Long expectedVersion);
+
+    void patchUser(UUID userId, UserPatchRequest userPatchRequest, Long expectedVersion);
+
+    default void updateUserEmail(UUID userId, String email) {
+        updateUserEmail(userId, email, null);
+    }
+
+    void updateUserEmail(UUID userId, String email, Long expectedVersion);
+
+    void updateUserEmails(List<UserEmailUpdate> updates);
 
     void deleteUserById(UUID userId);
 
-    List<User> findByBirthDateRange(LocalDate fromDate, LocalDate toDate);
+    UserView findById(UUID userId);
+
+    UserView findByEmail(String email);
+
+    List<UserNameMatch> searchByNamePrefix(String prefix, int limit);
+
+    List<UserView> findByBirthDateRange(LocalDate fromDate, LocalDate toDate);
+
+    UserPage findPageByBirthDateRange(LocalDate fromDate, LocalDate toDate, String continuationToken, int size);
+
+    void streamByBirthDateRange(LocalDate fromDate, LocalDate toDate, Consumer<UserView> consumer);
+
+    List<BirthDateRangeCount> countByBirthDateRanges(List<BirthDateRange> ranges, boolean includeIds, boolean parallel);
+
+    AgeCohortCounts countAgeCohorts();
+
+    List<AgeHistogramBucket> findAgeHistogram(int maxAge);
+
+    void exportByBirthDateRange(LocalDate fromDate, LocalDate toDate, UserRowWriter writer);
 }
@@ -0,0 +1,8 @@
+package clear.solutions.demo.service.event;
+
+public enum UserChangeType {
+    CREATED,
+    UPDATED,
+    EMAIL_UPDATED,
+    DELETED
+}
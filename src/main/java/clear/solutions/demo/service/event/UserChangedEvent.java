@@ -0,0 +1,12 @@
+package clear.solutions.demo.service.event;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record UserChangedEvent(UserChangeType type, UUID userId, LocalDate birthDate, LocalDate previousBirthDate,
+                               String firstName, String lastName) {
+
+    public UserChangedEvent(UserChangeType type, UUID userId, LocalDate birthDate, LocalDate previousBirthDate) {
+        this(type, userId, birthDate, previousBirthDate, null, null);
+    }
+}
@@ -0,0 +1,145 @@
+package clear.solutions.demo.service.imp;
+
+import clear.solutions.demo.cache.BirthDateRange;
+import clear.solutions.demo.export.UserRowWriter;
+import clear.solutions.demo.index.BirthDateIndex;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.repository.UserRepository;
+import clear.solutions.demo.request.UserEmailUpdate;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.request.UserPatchRequest;
+import clear.solutions.demo.response.AgeCohortCounts;
+import clear.solutions.demo.response.AgeHistogramBucket;
+import clear.solutions.demo.response.BatchImportResult;
+import clear.solutions.demo.response.BirthDateRangeCount;
+import clear.solutions.demo.response.UserNameMatch;
+import clear.solutions.demo.response.UserPage;
+import clear.solutions.demo.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Service
+@Primary
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "user.range.mode", havingValue = "memory-index")
+public class MemoryIndexUserService implements UserService {
+    public final UserServiceImp userServiceImp;
+    public final UserRepository userRepository;
+    public final BirthDateIndex birthDateIndex;
+
+    @Value("${user.range.memory-index.fetch-size}")
+    private int fetchSize;
+
+    @Override
+    public User createUser(UserModificationRequest userModificationRequest) {
+        return userServiceImp.createUser(userModificationRequest);
+    }
+
+    @Override
+    public BatchImportResult importUsers(Iterator<UserModificationRequest> userModificationRequests) {
+        return userServiceImp.importUsers(userModificationRequests);
+    }
+
+    @Override
+    public void updateUser(UUID userId, UserModificationRequest userModificationRequest, Long expectedVersion) {
+        userServiceImp.updateUser(userId, userModificationRequest, expectedVersion);
+    }
+
+    @Override
+    public void patchUser(UUID userId, UserPatchRequest userPatchRequest, Long expectedVersion) {
+        userServiceImp.patchUser(userId, userPatchRequest, expectedVersion);
+    }
+
+    @Override
+    public void updateUserEmail(UUID userId, String email, Long expectedVersion) {
+        userServiceImp.updateUserEmail(userId, email, expectedVersion);
+    }
+
+    @Override
+    public void updateUserEmails(List<UserEmailUpdate> updates) {
+        userServiceImp.updateUserEmails(updates);
+    }
+
+    @Override
+    public void deleteUserById(UUID userId) {
+        userServiceImp.deleteUserById(userId);
+    }
+
+    @Override
+    public UserView findById(UUID userId) {
+        return userServiceImp.findById(userId);
+    }
+
+    @Override
+    public UserView findByEmail(String email) {
+        return userServiceImp.findByEmail(email);
+    }
+
+    @Override
+    public List<UserNameMatch> searchByNamePrefix(String prefix, int limit) {
+        return userServiceImp.searchByNamePrefix(prefix, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserView> findByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        List<UUID> userIds = birthDateIndex.findByBirthDateRange(fromDate, toDate);
+        List<UserView> users = new ArrayList<>(userIds.size());
+        for (int from = 0; from < userIds.size(); from += fetchSize) {
+            List<UUID> chunk = userIds.subList(from, Math.min(from + fetchSize, userIds.size()));
+            Map<UUID, UserView> usersById = new HashMap<>();
+            userRepository.findViewsByIdIn(chunk).forEach(user -> usersById.put(user.id(), user));
+            for (UUID userId : chunk) {
+                UserView user = usersById.get(userId);
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+        }
+        return userServiceImp.applyPendingEmails(users);
+    }
+
+    @Override
+    public UserPage findPageByBirthDateRange(LocalDate fromDate, LocalDate toDate, String continuationToken, int size) {
+        return userServiceImp.findPageByBirthDateRange(fromDate, toDate, continuationToken, size);
+    }
+
+    @Override
+    public void streamByBirthDateRange(LocalDate fromDate, LocalDate toDate, Consumer<UserView> consumer) {
+        userServiceImp.streamByBirthDateRange(fromDate, toDate, consumer);
+    }
+
+    @Override
+    public List<BirthDateRangeCount> countByBirthDateRanges(List<BirthDateRange> ranges, boolean includeIds, boolean parallel) {
+        return userServiceImp.countByBirthDateRanges(ranges, includeIds, parallel);
+    }
+
+    @Override
+    public AgeCohortCounts countAgeCohorts() {
+        return userServiceImp.countAgeCohorts();
+    }
+
+    @Override
+    public List<AgeHistogramBucket> findAgeHistogram(int maxAge) {
+        return userServiceImp.findAgeHistogram(maxAge);
+    }
+
+    @Override
+    public void exportByBirthDateRange(LocalDate fromDate, LocalDate toDate, UserRowWriter writer) {
+        userServiceImp.exportByBirthDateRange(fromDate, toDate, writer);
+    }
+}
@@ -0,0 +1,212 @@
+package clear.solutions.demo.service.imp;
+
+import clear.solutions.demo.exception.DuplicateEmailException;
+import clear.solutions.demo.exception.EntityIdNotFoundException;
+import clear.solutions.demo.id.UserIdStrategy;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.repository.ReactiveUserRepository;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.request.UserRangeCursor;
+import clear.solutions.demo.response.BatchImportResult;
+import clear.solutions.demo.response.BatchItemError;
+import clear.solutions.demo.response.UserPage;
+import clear.solutions.demo.service.ReactiveUserService;
+import clear.solutions.demo.service.event.UserChangeType;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.codec.CodecException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserServiceImp implements ReactiveUserService {
+    private static final List<String> UNPARSABLE_STREAM = List.of("item: could not be parsed, import stopped");
+    private static final List<String> EMAIL_EXISTS = List.of("email: already exists");
+
+    public final ReactiveUserRepository reactiveUserRepository;
+    public final ApplicationEventPublisher eventPublisher;
+    public final Validator validator;
+
+    @Value("${user.id.strategy}")
+    private UserIdStrategy idStrategy;
+
+    @Value("${user.batch.chunk-size}")
+    private int batchChunkSize;
+
+    @Override
+    public Mono<UserView> createUser(UserModificationRequest userModificationRequest) {
+        return createUser(mapUserModificationRequestToUserView(idStrategy.next(), userModificationRequest));
+    }
+
+    private Mono<UserView> createUser(UserView userView) {
+        return reactiveUserRepository.insert(userView)
+                .onErrorMap(DataIntegrityViolationException.class, DuplicateEmailException::translate)
+                .doOnNext(user -> eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.CREATED, user.id(),
+                        user.birthDate(), null, user.firstName(), user.lastName())));
+    }
+
+    @Override
+    public Mono<BatchImportResult> importUsers(Flux<UserModificationRequest> userModificationRequests) {
+        return Mono.defer(() -> {
+            List<BatchItemError> errors = Collections.synchronizedList(new ArrayList<>());
+            AtomicLong index = new AtomicLong();
+            return userModificationRequests
+                    .<IndexedUser>handle((userModificationRequest, sink) -> {
+                        long itemIndex = index.getAndIncrement();
+                        List<String> violations = validate(userModificationRequest);
+                        if (violations.isEmpty()) {
+                            sink.next(new IndexedUser(itemIndex,
+                                    mapUserModificationRequestToUserView(idStrategy.next(), userModificationRequest)));
+                        } else {
+                            errors.add(new BatchItemError(itemIndex, violations));
+                        }
+                    })
+                    .onErrorResume(ReactiveUserServiceImp::isUnparsable, e -> {
+                        errors.add(new BatchItemError(index.get(), UNPARSABLE_STREAM));
+                        return Flux.empty();
+                    })
+                    .buffer(batchChunkSize)
+                    .concatMap(chunk -> saveChunk(chunk, errors))
+                    .reduce(0L, Long::sum)
+                    .map(createdCount -> {
+                        List<BatchItemError> sortedErrors = new ArrayList<>(errors);
+                        sortedErrors.sort(Comparator.comparingLong(BatchItemError::index));
+                        return new BatchImportResult(createdCount, sortedErrors);
+                    });
+        });
+    }
+
+    private static boolean isUnparsable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CodecException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> validate(UserModificationRequest userModificationRequest) {
+        return validator.validate(userModificationRequest).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private Mono<Long> saveChunk(List<IndexedUser> chunk, List<BatchItemError> errors) {
+        return reactiveUserRepository.findExistingNormalizedEmails(
+                        chunk.stream().map(item -> User.normalizeEmail(item.user().email())).toList())
+                .collect(HashSet<String>::new, HashSet::add)
+                .flatMapMany(takenEmails -> Flux.fromIterable(chunk)
+                        .filter(item -> {
+                            if (takenEmails.add(User.normalizeEmail(item.user().email()))) {
+                                return true;
+                            }
+                            errors.add(new BatchItemError(item.index(), EMAIL_EXISTS));
+                            return false;
+                        }))
+                .concatMap(item -> createUser(item.user())
+                        .thenReturn(1L)
+                        .onErrorResume(DuplicateEmailException.class, e -> {
+                            errors.add(new BatchItemError(item.index(), EMAIL_EXISTS));
+                            return Mono.just(0L);
+                        }))
+                .reduce(0L, Long::sum);
+    }
+
+    @Override
+    public Mono<Void> updateUser(UUID userId, UserModificationRequest userModificationRequest) {
+        return requireUserFound(reactiveUserRepository.update(mapUserModificationRequestToUserView(userId, userModificationRequest)))
+                .onErrorMap(DataIntegrityViolationException.class, DuplicateEmailException::translate)
+                .doOnNext(previousBirthDate -> eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.UPDATED,
+                        userId, userModificationRequest.getBirthDate(), previousBirthDate,
+                        userModificationRequest.getFirstName(), userModificationRequest.getLastName())))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> updateUserEmail(UUID userId, String email) {
+        return reactiveUserRepository.updateEmail(userId, email)
+                .onErrorMap(DataIntegrityViolationException.class, DuplicateEmailException::translate)
+                .flatMap(this::requireUserAffected)
+                .doOnSuccess(ignored -> eventPublisher.publishEvent(
+                        new UserChangedEvent(UserChangeType.EMAIL_UPDATED, userId, null, null)));
+    }
+
+    @Override
+    public Mono<Void> deleteUserById(UUID userId) {
+        return requireUserFound(reactiveUserRepository.delete(userId))
+                .doOnNext(previousBirthDate -> eventPublisher.publishEvent(
+                        new UserChangedEvent(UserChangeType.DELETED, userId, null, previousBirthDate)))
+                .then();
+    }
+
+    @Override
+    public Mono<UserView> findById(UUID userId) {
+        return reactiveUserRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new EntityIdNotFoundException("User is not found by id")));
+    }
+
+    @Override
+    public Flux<UserView> findByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        return reactiveUserRepository.findByBirthDateRange(fromDate, toDate);
+    }
+
+    @Override
+    public Mono<UserPage> findPageByBirthDateRange(LocalDate fromDate, LocalDate toDate, String continuationToken, int size) {
+        return Flux.defer(() -> reactiveUserRepository.findPageByBirthDateRange(fromDate, toDate,
+                        continuationToken == null ? null : UserRangeCursor.decode(continuationToken), size + 1))
+                .collectList()
+                .map(users -> {
+                    if (users.size() <= size) {
+                        return new UserPage(users, null);
+                    }
+                    List<UserView> page = users.subList(0, size);
+                    UserView last = page.get(size - 1);
+                    return new UserPage(page, new UserRangeCursor(last.birthDate(), last.id()).encode());
+                });
+    }
+
+    private Mono<Void> requireUserAffected(long affectedRows) {
+        if (affectedRows == 0) {
+            return Mono.error(new EntityIdNotFoundException("User is not found by id"));
+        }
+        return Mono.empty();
+    }
+
+    private Mono<LocalDate> requireUserFound(Flux<LocalDate> previousBirthDates) {
+        return previousBirthDates.next()
+                .switchIfEmpty(Mono.error(() -> new EntityIdNotFoundException("User is not found by id")));
+    }
+
+    private UserView mapUserModificationRequestToUserView(UUID userId, UserModificationRequest userModificationRequest) {
+        return new UserView(userId,
+                userModificationRequest.getEmail(),
+                userModificationRequest.getFirstName(),
+                userModificationRequest.getLastName(),
+                userModificationRequest.getBirthDate(),
+                userModificationRequest.getAddress(),
+                userModificationRequest.getPhone(),
+                0);
+    }
+
+    private record IndexedUser(long index, UserView user) {
+    }
+}
@@ -1,36 +1,243 @@
 package clear.solutions.demo.service.imp;
 
+import clear.solutions.demo.aggregate.AgeCohortCounters;
+import clear.solutions.demo.aggregate.BirthDateRangeCounter;
+import clear.solutions.demo.cache.BirthDateRange;
+import clear.solutions.demo.cache.UserCache;
+import clear.solutions.demo.exception.DuplicateEmailException;
 import clear.solutions.demo.exception.EntityIdNotFoundException;
+import clear.solutions.demo.exception.PreconditionFailedException;
+import clear.solutions.demo.export.UserRowWriter;
+import clear.solutions.demo.index.NameIndex;
 import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.repository.UserExportRepository;
 import clear.solutions.demo.repository.UserRepository;
+import clear.solutions.demo.request.UserEmailUpdate;
 import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.request.UserPatchRequest;
+import clear.solutions.demo.request.UserRangeCursor;
+import clear.solutions.demo.response.AgeCohortCounts;
+import clear.solutions.demo.response.AgeHistogramBucket;
+import clear.solutions.demo.response.BatchImportResult;
+import clear.solutions.demo.response.BatchItemError;
+import clear.solutions.demo.response.BirthDateRangeCount;
+import clear.solutions.demo.response.UserNameMatch;
+import clear.solutions.demo.response.UserPage;
 import clear.solutions.demo.service.UserService;
+import clear.solutions.demo.service.event.UserChangeType;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import clear.solutions.demo.writebehind.EmailWriteBehindBuffer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImp implements UserService {
+    private static final List<String> UNPARSABLE_ITEM = List.of("item: could not be parsed");
+    private static final List<String> UNPARSABLE_STREAM = List.of("item: could not be parsed, import stopped");
+
     public final UserRepository userRepository;
+    public final Validator validator;
+    public final TransactionTemplate transactionTemplate;
+    public final UserCache userCache;
+    public final ApplicationEventPublisher eventPublisher;
+    public final Optional<EmailWriteBehindBuffer> emailWriteBehindBuffer;
+    public final UserExportRepository userExportRepository;
+    public final BirthDateRangeCounter birthDateRangeCounter;
+    public final AgeCohortCounters ageCohortCounters;
+    public final Optional<NameIndex> nameIndex;
+
+    @Value("${user.batch.chunk-size}")
+    private int batchChunkSize;
 
     @Override
+    @Transactional
     public User createUser(UserModificationRequest userModificationRequest) {
-        return userRepository.save(mapUserModificationRequestToUser(userModificationRequest));
+        requireEmailNotPending(userModificationRequest.getEmail(), null);
+        User user = uniqueEmail(() -> userRepository.saveAndFlush(mapUserModificationRequestToUser(userModificationRequest)));
+        afterCommit(() -> userCache.evict(user.getId(), user.getBirthDate()));
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.CREATED, user.getId(), user.getBirthDate(), null,
+                user.getFirstName(), user.getLastName()));
+        return user;
     }
 
     @Override
-    public void updateUser(UUID userId, UserModificationRequest userModificationRequest) {
-        isExistById(userId);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchImportResult importUsers(Iterator<UserModificationRequest> userModificationRequests) {
+        List<BatchItemError> errors = new ArrayList<>();
+        List<User> chunk = new ArrayList<>(batchChunkSize);
+        List<Long> chunkIndexes = new ArrayList<>(batchChunkSize);
+        long createdCount = 0;
+        long index = 0;
+
+        while (hasNext(userModificationRequests, index, errors)) {
+            UserModificationRequest userModificationRequest;
+            try {
+                userModificationRequest = userModificationRequests.next();
+            } catch (RuntimeException e) {
+                errors.add(new BatchItemError(index++, UNPARSABLE_ITEM));
+                continue;
+            }
+            List<String> violations = validate(userModificationRequest);
+            if (violations.isEmpty()) {
+                chunk.add(mapUserModificationRequestToUser(userModificationRequest));
+                chunkIndexes.add(index);
+            } else {
+                errors.add(new BatchItemError(index, violations));
+            }
+            index++;
+
+            if (chunk.size() == batchChunkSize) {
+                createdCount += saveChunk(chunk, chunkIndexes, errors);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            createdCount += saveChunk(chunk, chunkIndexes, errors);
+        }
+        errors.sort(Comparator.comparingLong(BatchItemError::index));
+        return new BatchImportResult(createdCount, errors);
+    }
+
+    private static boolean hasNext(Iterator<UserModificationRequest> userModificationRequests, long index,
+                                   List<BatchItemError> errors) {
+        try {
+            return userModificationRequests.hasNext();
+        } catch (RuntimeException e) {
+            BatchItemError last = errors.isEmpty() ? null : errors.get(errors.size() - 1);
+            if (last != null && last.index() == index - 1 && last.messages().equals(UNPARSABLE_ITEM)) {
+                errors.set(errors.size() - 1, new BatchItemError(last.index(), UNPARSABLE_STREAM));
+            } else {
+                errors.add(new BatchItemError(index, UNPARSABLE_STREAM));
+            }
+            return false;
+        }
+    }
+
+    private List<String> validate(UserModificationRequest userModificationRequest) {
+        if (userModificationRequest == null) {
+            return List.of("User must not be null");
+        }
+        return validator.validate(userModificationRequest).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
 
+    private int saveChunk(List<User> chunk, List<Long> chunkIndexes, List<BatchItemError> errors) {
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingNormalizedEmails(
+                chunk.stream().map(user -> User.normalizeEmail(user.getEmail())).toList()));
+        List<User> unique = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String email = chunk.get(i).getEmail();
+            if (!isEmailPending(email, null) && takenEmails.add(User.normalizeEmail(email))) {
+                unique.add(chunk.get(i));
+            } else {
+                errors.add(new BatchItemError(chunkIndexes.get(i), List.of("email: already exists")));
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+        if (unique.isEmpty()) {
+            return 0;
+        }
+
+        uniqueEmail(() -> transactionTemplate.execute(status -> {
+            userRepository.insertAll(unique);
+            unique.forEach(user -> eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.CREATED, user.getId(),
+                    user.getBirthDate(), null, user.getFirstName(), user.getLastName())));
+            return unique;
+        }));
+        userCache.evictRanges(unique.stream().map(User::getBirthDate).toList());
+        return unique.size();
+    }
+
+    @Override
+    public void updateUser(UUID userId, UserModificationRequest userModificationRequest, Long expectedVersion) {
         User user = mapUserModificationRequestToUser(userModificationRequest);
-        user.setId(userId);
-        userRepository.save(user);
+        requireEmailNotPending(user.getEmail(), userId);
+        flushPendingEmail(userId);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<LocalDate> previousBirthDates;
+            if (expectedVersion == null) {
+                previousBirthDates = uniqueEmail(() -> userRepository.updateById(userId, user));
+                requireUserAffected(previousBirthDates.size());
+            } else {
+                previousBirthDates = uniqueEmail(() -> userRepository.updateByIdAndVersion(userId, expectedVersion, user));
+                requireUserVersionMatched(userId, previousBirthDates.size());
+            }
+            afterCommit(() -> userCache.evict(userId, user.getBirthDate()));
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.UPDATED, userId, user.getBirthDate(),
+                    previousBirthDates.get(0), user.getFirstName(), user.getLastName()));
+        });
     }
 
+    @Override
+    public void patchUser(UUID userId, UserPatchRequest userPatchRequest, Long expectedVersion) {
+        Set<ConstraintViolation<UserModificationRequest>> violations = new HashSet<>();
+        for (String field : userPatchRequest.fields()) {
+            violations.addAll(validator.validateProperty(userPatchRequest.values(), field));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        if (userPatchRequest.fields().isEmpty()) {
+            if (!userRepository.existsById(userId)) {
+                throw new EntityIdNotFoundException("User is not found by id");
+            }
+            return;
+        }
+
+        if (userPatchRequest.contains("email")) {
+            requireEmailNotPending(userPatchRequest.values().getEmail(), userId);
+        }
+        flushPendingEmail(userId);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<LocalDate> previousBirthDates = uniqueEmail(
+                    () -> userRepository.patchById(userId, userPatchRequest.changes(), expectedVersion));
+            if (expectedVersion == null) {
+                requireUserAffected(previousBirthDates.size());
+            } else {
+                requireUserVersionMatched(userId, previousBirthDates.size());
+            }
+            LocalDate birthDate = userPatchRequest.contains("birthDate") ? userPatchRequest.values().getBirthDate() : null;
+            afterCommit(() -> userCache.evict(userId, birthDate));
+            String firstName = userPatchRequest.contains("firstName") ? userPatchRequest.values().getFirstName() : null;
+            String lastName = userPatchRequest.contains("lastName") ? userPatchRequest.values().getLastName() : null;
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.UPDATED, userId, birthDate,
+                    previousBirthDates.get(0), firstName, lastName));
+        });
+    }
 
     public User mapUserModificationRequestToUser(UserModificationRequest userModificationRequest) {
         User user = new User();
@@ -45,26 +252,240 @@ public class UserServiceImp implements UserService {
     }
 
     @Override
-    public void updateUserEmail(UUID userId, String email) {
-        User userInDB = isExistById(userId);
-        userInDB.setEmail(email);
-        userRepository.save(userInDB);
+    public void updateUserEmail(UUID userId, String email, Long expectedVersion) {
+        if (expectedVersion != null) {
+            requireEmailNotPending(email, userId);
+            flushPendingEmail(userId);
+        }
+        transactionTemplate.executeWithoutResult(status -> writeUserEmail(userId, email, expectedVersion));
+    }
+
+    private void writeUserEmail(UUID userId, String email, Long expectedVersion) {
+        if (expectedVersion != null) {
+            requireUserVersionMatched(userId, uniqueEmail(() -> userRepository.updateEmailByIdAndVersion(userId, expectedVersion, email)));
+            afterCommit(() -> userCache.evict(userId, null));
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.EMAIL_UPDATED, userId, null, null));
+        } else if (emailWriteBehindBuffer.isPresent()) {
+            EmailWriteBehindBuffer buffer = emailWriteBehindBuffer.get();
+            if (!buffer.isPending(userId) && !userRepository.existsById(userId)) {
+                throw new EntityIdNotFoundException("User is not found by id");
+            }
+            buffer.reserve(userId, email);
+            if (userRepository.existsByNormalizedEmailAndIdNot(User.normalizeEmail(email), userId)) {
+                buffer.release(userId, email);
+                throw new DuplicateEmailException("User with this email already exists");
+            }
+            afterCompletion(() -> buffer.put(userId, email), () -> buffer.release(userId, email));
+        } else {
+            requireUserAffected(uniqueEmail(() -> userRepository.updateEmailById(userId, email)));
+            afterCommit(() -> userCache.evict(userId, null));
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.EMAIL_UPDATED, userId, null, null));
+        }
+    }
+
+    @Override
+    public void updateUserEmails(List<UserEmailUpdate> updates) {
+        Map<UUID, String> emails = new LinkedHashMap<>();
+        updates.forEach(update -> emails.put(update.getUserId(), update.getEmail()));
+        emails.forEach((userId, email) -> requireEmailNotPending(email, userId));
+        emailWriteBehindBuffer.filter(buffer -> emails.keySet().stream().anyMatch(buffer::isPending))
+                .ifPresent(EmailWriteBehindBuffer::flush);
+        transactionTemplate.executeWithoutResult(status -> writeUserEmails(emails));
     }
 
-    private User isExistById(UUID userId) {
-        return userRepository
-                .findById(userId)
-                .orElseThrow(() -> new EntityIdNotFoundException("User is not found by id"));
+    private void writeUserEmails(Map<UUID, String> emails) {
+        int[] affectedRows = uniqueEmail(() -> userRepository.updateEmailsById(emails));
+        List<UUID> missingUserIds = new ArrayList<>();
+        int index = 0;
+        for (UUID userId : emails.keySet()) {
+            if (affectedRows[index++] == 0) {
+                missingUserIds.add(userId);
+            }
+        }
+        if (!missingUserIds.isEmpty()) {
+            throw new EntityIdNotFoundException("Users are not found by id: " + missingUserIds);
+        }
+
+        afterCommit(() -> emails.keySet().forEach(userId -> userCache.evict(userId, null)));
+        emails.keySet().forEach(userId -> eventPublisher.publishEvent(
+                new UserChangedEvent(UserChangeType.EMAIL_UPDATED, userId, null, null)));
     }
 
     @Override
+    @Transactional
     public void deleteUserById(UUID userId) {
-        isExistById(userId);
-        userRepository.deleteById(userId);
+        List<LocalDate> previousBirthDates = userRepository.removeById(userId);
+        requireUserAffected(previousBirthDates.size());
+        emailWriteBehindBuffer.ifPresent(buffer -> afterCommit(() -> buffer.discard(userId)));
+        afterCommit(() -> userCache.evict(userId, null));
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.DELETED, userId, null, previousBirthDates.get(0)));
     }
 
     @Override
-    public List<User> findByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
-        return userRepository.findByBirthDateGreaterThanEqualAndBirthDateLessThanEqual(fromDate, toDate);
+    @Transactional(readOnly = true)
+    public UserView findById(UUID userId) {
+        UserView user = userCache.getById(userId, id -> userRepository.findViewById(id).orElse(null));
+        if (user == null) {
+            throw new EntityIdNotFoundException("User is not found by id");
+        }
+        return applyPendingEmail(user);
+    }
+
+    @Override
+    public UserView findByEmail(String email) {
+        emailWriteBehindBuffer.ifPresent(EmailWriteBehindBuffer::flush);
+        return readOnly(status -> userRepository.findViewByNormalizedEmail(User.normalizeEmail(email)))
+                .orElseThrow(() -> new EntityIdNotFoundException("User is not found by email"));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<UserNameMatch> searchByNamePrefix(String prefix, int limit) {
+        if (nameIndex.isPresent()) {
+            return nameIndex.get().findByPrefix(prefix, limit);
+        }
+        String escapedPrefix = prefix.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return userRepository.findNameMatchesByPrefix(escapedPrefix + "%", PageRequest.of(0, limit));
+    }
+
+    private void requireUserAffected(int affectedRows) {
+        if (affectedRows == 0) {
+            throw new EntityIdNotFoundException("User is not found by id");
+        }
+    }
+
+    private void requireUserVersionMatched(UUID userId, int affectedRows) {
+        if (affectedRows == 0 && userRepository.existsById(userId)) {
+            throw new PreconditionFailedException("User was modified by another request");
+        }
+        requireUserAffected(affectedRows);
+    }
+
+    private static <T> T uniqueEmail(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicateEmailException.translate(e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        afterCompletion(action, () -> {
+        });
+    }
+
+    private void afterCompletion(Runnable committed, Runnable rolledBack) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        rolledBack.run();
+                    }
+                }
+            });
+        } else {
+            committed.run();
+        }
+    }
+
+    private boolean isEmailPending(String email, UUID userId) {
+        return email != null && emailWriteBehindBuffer.filter(buffer -> buffer.isReservedByOther(email, userId)).isPresent();
+    }
+
+    private void requireEmailNotPending(String email, UUID userId) {
+        if (isEmailPending(email, userId)) {
+            throw new DuplicateEmailException("User with this email already exists");
+        }
+    }
+
+    private void flushPendingEmail(UUID userId) {
+        emailWriteBehindBuffer.filter(buffer -> buffer.isPending(userId)).ifPresent(EmailWriteBehindBuffer::flush);
+    }
+
+    private <T> T readOnly(TransactionCallback<T> action) {
+        TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+        return readOnlyTransactionTemplate.execute(action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserView> findByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        return applyPendingEmails(userCache.getByRange(fromDate, toDate,
+                range -> userRepository.findViewsByBirthDateRange(range.fromDate(), range.toDate())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPage findPageByBirthDateRange(LocalDate fromDate, LocalDate toDate, String continuationToken, int size) {
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+        List<UserView> users;
+        if (continuationToken == null) {
+            users = userRepository.findFirstPageByBirthDateRange(fromDate, toDate, pageRequest);
+        } else {
+            UserRangeCursor cursor = UserRangeCursor.decode(continuationToken);
+            users = userRepository.findNextPageByBirthDateRange(toDate, cursor.birthDate(), cursor.id(), pageRequest);
+        }
+
+        if (users.size() <= size) {
+            return new UserPage(applyPendingEmails(users), null);
+        }
+        List<UserView> page = applyPendingEmails(users.subList(0, size));
+        UserView last = page.get(size - 1);
+        return new UserPage(page, new UserRangeCursor(last.birthDate(), last.id()).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamByBirthDateRange(LocalDate fromDate, LocalDate toDate, Consumer<UserView> consumer) {
+        try (Stream<UserView> users = userRepository.streamByBirthDateRange(fromDate, toDate)) {
+            users.map(this::applyPendingEmail).forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BirthDateRangeCount> countByBirthDateRanges(List<BirthDateRange> ranges, boolean includeIds, boolean parallel) {
+        return includeIds
+                ? birthDateRangeCounter.countWithIds(ranges)
+                : birthDateRangeCounter.count(ranges, parallel);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public AgeCohortCounts countAgeCohorts() {
+        return ageCohortCounters.counts();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<AgeHistogramBucket> findAgeHistogram(int maxAge) {
+        return ageCohortCounters.histogram(maxAge);
+    }
+
+    @Override
+    public void exportByBirthDateRange(LocalDate fromDate, LocalDate toDate, UserRowWriter writer) {
+        emailWriteBehindBuffer.ifPresent(EmailWriteBehindBuffer::flush);
+        readOnly(status -> {
+            userExportRepository.exportByBirthDateRange(fromDate, toDate, writer);
+            return null;
+        });
+    }
+
+    public List<UserView> applyPendingEmails(List<UserView> users) {
+        return emailWriteBehindBuffer.map(buffer -> buffer.applyPending(users)).orElse(users);
+    }
+
+    private UserView applyPendingEmail(UserView user) {
+        return emailWriteBehindBuffer.map(buffer -> buffer.applyPending(user)).orElse(user);
     }
 }
@@ -0,0 +1,236 @@
+package clear.solutions.demo.writebehind;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class EmailUpdateLog implements Closeable {
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int MAX_EMAIL_BYTES = 4096;
+    private static final int TOMBSTONE = -1;
+
+    private final Path activeFile;
+    private final Path flushingFile;
+    private final boolean fsync;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+    private FileChannel channel;
+    private long writtenSequence;
+    private long syncedSequence;
+    private boolean syncing;
+
+    public EmailUpdateLog(Path activeFile, boolean fsync) {
+        this.activeFile = activeFile;
+        this.flushingFile = activeFile.resolveSibling(activeFile.getFileName() + ".flushing");
+        this.fsync = fsync;
+    }
+
+    public Map<UUID, Entry> recover() {
+        lock.lock();
+        try {
+            Map<UUID, Entry> entries = new LinkedHashMap<>();
+            readInto(flushingFile, entries, new HashMap<>());
+            readInto(activeFile, entries, new HashMap<>(entries));
+            Path recoveredFile = activeFile.resolveSibling(activeFile.getFileName() + ".recovered");
+            try (FileChannel recovered = open(recoveredFile, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Map.Entry<UUID, Entry> entry : entries.entrySet()) {
+                    write(recovered, entry.getKey(), entry.getValue().email(), entry.getValue().updates());
+                }
+                recovered.force(true);
+            }
+            Files.move(recoveredFile, activeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(flushingFile);
+            channel = open(activeFile, StandardOpenOption.APPEND);
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(UUID userId, String email, int updates) {
+        long sequence;
+        lock.lock();
+        try {
+            write(channel, userId, email, updates);
+            sequence = ++writtenSequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+        if (fsync) {
+            awaitSynced(sequence);
+        }
+    }
+
+    public void appendTombstone(UUID userId) {
+        append(userId, null, 0);
+    }
+
+    public void rotate() {
+        lock.lock();
+        try {
+            if (fsync) {
+                channel.force(false);
+                markSynced(writtenSequence);
+            }
+            channel.close();
+            Files.move(activeFile, flushingFile, StandardCopyOption.ATOMIC_MOVE);
+            channel = open(activeFile, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void completeFlush() {
+        try {
+            Files.deleteIfExists(flushingFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitSynced(long sequence) {
+        syncLock.lock();
+        try {
+            while (syncedSequence < sequence) {
+                if (syncing) {
+                    syncDone.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                syncLock.unlock();
+                long target;
+                try {
+                    target = sync();
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    syncDone.signalAll();
+                }
+                syncedSequence = Math.max(syncedSequence, target);
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private long sync() {
+        FileChannel current;
+        long target;
+        lock.lock();
+        try {
+            current = channel;
+            target = writtenSequence;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            current.force(false);
+        } catch (ClosedChannelException e) {
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return target;
+    }
+
+    private void markSynced(long sequence) {
+        syncLock.lock();
+        try {
+            syncedSequence = Math.max(syncedSequence, sequence);
+            syncDone.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private static FileChannel open(Path file, StandardOpenOption mode) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+    }
+
+    private static void write(FileChannel target, UUID userId, String email, int updates) throws IOException {
+        byte[] emailBytes = email == null ? new byte[0] : email.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + emailBytes.length)
+                .putInt(email == null ? TOMBSTONE : emailBytes.length)
+                .putInt(updates)
+                .putLong(userId.getMostSignificantBits())
+                .putLong(userId.getLeastSignificantBits())
+                .put(emailBytes)
+                .flip();
+        while (record.hasRemaining()) {
+            target.write(record);
+        }
+    }
+
+    private static void readInto(Path file, Map<UUID, Entry> entries, Map<UUID, Entry> earlierFiles) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (InputStream inputStream = Files.newInputStream(file);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream))) {
+            while (true) {
+                int length = input.readInt();
+                int updates = input.readInt();
+                if (length < TOMBSTONE || length > MAX_EMAIL_BYTES || updates < 0) {
+                    return;
+                }
+                UUID userId = new UUID(input.readLong(), input.readLong());
+                entries.remove(userId);
+                if (length == TOMBSTONE) {
+                    earlierFiles.remove(userId);
+                    continue;
+                }
+                byte[] emailBytes = new byte[length];
+                input.readFully(emailBytes);
+                Entry earlier = earlierFiles.get(userId);
+                entries.put(userId, new Entry(new String(emailBytes, StandardCharsets.UTF_8),
+                        updates + (earlier == null ? 0 : earlier.updates())));
+            }
+        } catch (EOFException e) {
+            return;
+        }
+    }
+
+    public record Entry(String email, int updates) {
+    }
+}
@@ -0,0 +1,326 @@
+package clear.solutions.demo.writebehind;
+
+import clear.solutions.demo.cache.UserCache;
+import clear.solutions.demo.exception.DuplicateEmailException;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.service.event.UserChangeType;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "user.email.write-behind.enabled", havingValue = "true")
+public class EmailWriteBehindBuffer implements SmartInitializingSingleton, DisposableBean {
+    private static final String UPDATE_EMAIL_SQL = "UPDATE \"user\" SET \"email\" = ?, \"version\" = \"version\" + ? WHERE \"id\" = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmailUpdateLog updateLog;
+    private final int flushSize;
+    private final Duration flushInterval;
+    private final Stripe[] stripes;
+    private final ConcurrentHashMap<String, Reservation> reservedEmails = new ConcurrentHashMap<>();
+    private final Counter conflicts;
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "email-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Map<UUID, PendingEmail> inFlight = Map.of();
+
+    public EmailWriteBehindBuffer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, UserCache userCache,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${user.email.write-behind.log-file}") Path logFile,
+                                  @Value("${user.email.write-behind.fsync}") boolean fsync,
+                                  @Value("${user.email.write-behind.flush-size}") int flushSize,
+                                  @Value("${user.email.write-behind.flush-interval}") Duration flushInterval,
+                                  @Value("${user.email.write-behind.stripes}") int stripes,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.userCache = userCache;
+        this.eventPublisher = eventPublisher;
+        this.updateLog = new EmailUpdateLog(logFile, fsync);
+        this.flushSize = flushSize;
+        this.flushInterval = flushInterval;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(stripes, 1))];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.conflicts = Counter.builder("user.email.write-behind.conflicts")
+                .description("Buffered email updates rejected at flush because another user took the email")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        updateLog.recover().forEach((userId, entry) -> {
+            try {
+                reserve(userId, entry.email());
+            } catch (DuplicateEmailException e) {
+                log.warn("Recovered email update for user {} conflicts with another pending update", userId);
+            }
+            if (stripe(userId).pending.put(userId, new PendingEmail(entry.email(), entry.updates())) == null) {
+                pendingCount.incrementAndGet();
+            }
+        });
+        flush();
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void reserve(UUID userId, String email) {
+        Reservation reservation = reservedEmails.compute(User.normalizeEmail(email), (key, current) -> {
+            if (current == null) {
+                return new Reservation(userId, 1);
+            }
+            return current.userId().equals(userId) ? new Reservation(userId, current.count() + 1) : current;
+        });
+        if (!reservation.userId().equals(userId)) {
+            throw new DuplicateEmailException("User with this email already exists");
+        }
+    }
+
+    public void release(UUID userId, String email) {
+        reservedEmails.computeIfPresent(User.normalizeEmail(email), (key, current) -> {
+            if (!current.userId().equals(userId)) {
+                return current;
+            }
+            return current.count() == 1 ? null : new Reservation(userId, current.count() - 1);
+        });
+    }
+
+    public boolean isReservedByOther(String email, UUID userId) {
+        Reservation reservation = reservedEmails.get(User.normalizeEmail(email));
+        return reservation != null && !reservation.userId().equals(userId);
+    }
+
+    public void put(UUID userId, String email) {
+        Stripe stripe = stripe(userId);
+        stripe.lock.lock();
+        try {
+            PendingEmail previous = stripe.pending.get(userId);
+            int updates = previous == null ? 1 : previous.updates() + 1;
+            try {
+                updateLog.append(userId, email, updates);
+            } catch (RuntimeException e) {
+                release(userId, email);
+                throw e;
+            }
+            stripe.pending.put(userId, new PendingEmail(email, updates));
+            if (previous != null) {
+                release(userId, previous.email());
+            }
+            if (previous == null && pendingCount.incrementAndGet() >= flushSize
+                    && flushRequested.compareAndSet(false, true)) {
+                flusher.execute(this::flushQuietly);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public boolean isPending(UUID userId) {
+        return stripe(userId).pending.containsKey(userId) || inFlight.containsKey(userId);
+    }
+
+    public void discard(UUID userId) {
+        Stripe stripe = stripe(userId);
+        stripe.lock.lock();
+        try {
+            boolean inFlightUpdate = inFlight.containsKey(userId);
+            PendingEmail pending = stripe.pending.remove(userId);
+            if (pending != null) {
+                pendingCount.decrementAndGet();
+                release(userId, pending.email());
+            } else if (!inFlightUpdate) {
+                return;
+            }
+            updateLog.appendTombstone(userId);
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (inFlight.containsKey(userId)) {
+            flushLock.lock();
+            try {
+                if (inFlight.containsKey(userId)) {
+                    Map<UUID, PendingEmail> remaining = new HashMap<>(inFlight);
+                    release(userId, remaining.remove(userId).email());
+                    inFlight = remaining;
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    public UserView applyPending(UserView user) {
+        if (user == null || pendingCount.get() == 0 && inFlight.isEmpty()) {
+            return user;
+        }
+        PendingEmail pending = stripe(user.id()).pending.get(user.id());
+        PendingEmail flushing = inFlight.get(user.id());
+        if (pending == null && flushing == null) {
+            return user;
+        }
+        String email = pending != null ? pending.email() : flushing.email();
+        long updates = (pending != null ? pending.updates() : 0) + (flushing != null ? flushing.updates() : 0);
+        return new UserView(user.id(), email, user.firstName(), user.lastName(), user.birthDate(),
+                user.address(), user.phone(), user.version() + updates);
+    }
+
+    public List<UserView> applyPending(List<UserView> users) {
+        if (pendingCount.get() == 0 && inFlight.isEmpty()) {
+            return users;
+        }
+        List<UserView> result = new ArrayList<>(users.size());
+        for (UserView user : users) {
+            result.add(applyPending(user));
+        }
+        return result;
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            if (inFlight.isEmpty()) {
+                drain();
+            }
+            Map<UUID, PendingEmail> batch = inFlight;
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Object[]> arguments = new ArrayList<>(batch.size());
+            batch.forEach((userId, pending) -> arguments.add(new Object[]{pending.email(), pending.updates(), userId}));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    int[] affectedRows = jdbcTemplate.batchUpdate(UPDATE_EMAIL_SQL, arguments);
+                    for (int i = 0; i < affectedRows.length; i++) {
+                        publishEmailUpdated(affectedRows[i], arguments.get(i));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Buffered email batch violated a constraint, applying updates one by one", e);
+                arguments.forEach(this::updateQuietly);
+            }
+            batch.keySet().forEach(userId -> userCache.evict(userId, null));
+            batch.forEach((userId, pending) -> release(userId, pending.email()));
+            updateLog.completeFlush();
+            inFlight = Map.of();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushInterval.toMillis() + 10_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        updateLog.close();
+    }
+
+    private void drain() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            Map<UUID, PendingEmail> drained = new HashMap<>();
+            for (Stripe stripe : stripes) {
+                drained.putAll(stripe.pending);
+            }
+            if (drained.isEmpty()) {
+                return;
+            }
+            updateLog.rotate();
+            inFlight = drained;
+            for (Stripe stripe : stripes) {
+                stripe.pending.clear();
+            }
+            pendingCount.addAndGet(-drained.size());
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlock();
+            }
+        }
+    }
+
+    private void updateQuietly(Object[] argument) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    publishEmailUpdated(jdbcTemplate.update(UPDATE_EMAIL_SQL, argument), argument));
+        } catch (DataIntegrityViolationException e) {
+            conflicts.increment();
+            log.error("Rejected buffered email update for user {}, the email was taken by a direct write", argument[2], e);
+        }
+    }
+
+    private void publishEmailUpdated(int affectedRows, Object[] argument) {
+        if (affectedRows != 0) {
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangeType.EMAIL_UPDATED, (UUID) argument[2], null, null));
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush buffered email updates, will retry", e);
+        }
+    }
+
+    private Stripe stripe(UUID userId) {
+        return stripes[userId.hashCode() & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<UUID, PendingEmail> pending = new ConcurrentHashMap<>();
+    }
+
+    private record PendingEmail(String email, int updates) {
+    }
+
+    private record Reservation(UUID userId, int count) {
+    }
+}
@@ -0,0 +1,72 @@
+package clear.solutions.demo.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void tryAcquire_shouldRejectImmediately_WhenLimitIsReached() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 2, 1, Duration.ofMillis(100), 0.5, false);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.inFlight()).isEqualTo(2);
+
+        limit.release(FAST);
+
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void release_shouldBackOffMultiplicatively_WhenLatencyExceedsThreshold() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 40, 5, Duration.ofMillis(100), 0.5, true);
+
+        acquireAndRelease(limit, SLOW);
+        assertThat(limit.limit()).isEqualTo(20);
+        acquireAndRelease(limit, SLOW);
+        acquireAndRelease(limit, SLOW);
+        acquireAndRelease(limit, SLOW);
+
+        assertThat(limit.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void release_shouldGrowAdditively_OnlyWhileLimitIsUtilized() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(6, 4, 1, Duration.ofMillis(100), 0.5, true);
+
+        acquireAndRelease(limit, FAST);
+        assertThat(limit.limit()).isEqualTo(4);
+
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 3; j++) {
+                limit.tryAcquire();
+            }
+            for (int j = 0; j < 3; j++) {
+                limit.release(FAST);
+            }
+        }
+
+        assertThat(limit.limit()).isEqualTo(6);
+    }
+
+    @Test
+    void release_shouldKeepLimitFixed_WhenNotAdaptive() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 1, 1, Duration.ofMillis(100), 0.5, false);
+
+        acquireAndRelease(limit, SLOW);
+
+        assertThat(limit.limit()).isEqualTo(3);
+    }
+
+    private static void acquireAndRelease(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+        assertThat(limit.tryAcquire()).isTrue();
+        limit.release(latencyNanos);
+    }
+}
@@ -0,0 +1,141 @@
+package clear.solutions.demo.aggregate;
+
+import clear.solutions.demo.model.BirthDateCount;
+import clear.solutions.demo.repository.UserRepository;
+import clear.solutions.demo.request.validation.validator.BirthDateValidator;
+import clear.solutions.demo.response.AgeCohortCounts;
+import clear.solutions.demo.response.AgeHistogramBucket;
+import clear.solutions.demo.service.event.UserChangeType;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import jakarta.validation.ConstraintValidatorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AgeCohortCountersTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MutableClock clock = new MutableClock(LocalDate.of(2024, 6, 15));
+    private AgeCohortCounters ageCohortCounters;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.countAllByBirthDate()).thenReturn(List.of(
+                new BirthDateCount(LocalDate.of(1959, 6, 15), 1),
+                new BirthDateCount(LocalDate.of(1990, 1, 1), 2),
+                new BirthDateCount(LocalDate.of(2003, 6, 15), 1),
+                new BirthDateCount(LocalDate.of(2006, 6, 15), 1),
+                new BirthDateCount(LocalDate.of(2006, 6, 16), 1)));
+        ageCohortCounters = new AgeCohortCounters(userRepository, clock, new int[]{65, 21}, 18);
+        ageCohortCounters.rebuild();
+    }
+
+    @Test
+    void counts_shouldApplyAgeRestrictionRule_WhenBirthdayIsToday() {
+        AgeCohortCounts counts = ageCohortCounters.counts();
+
+        assertThat(counts.asOf()).isEqualTo(LocalDate.of(2024, 6, 15));
+        assertThat(counts.total()).isEqualTo(6);
+        assertThat(counts.atLeastAge()).containsExactly(Map.entry(18, 4L), Map.entry(21, 3L), Map.entry(65, 0L));
+    }
+
+    @Test
+    void counts_shouldAgreeWithBirthDateValidator_OnBoundaryDay() {
+        ConstraintValidatorContext context = mock(ConstraintValidatorContext.class, RETURNS_DEEP_STUBS);
+        when(context.getDefaultConstraintMessageTemplate()).thenReturn("Age must be bigger than %s");
+        BirthDateValidator validator = new BirthDateValidator(18, clock);
+        for (LocalDate today = LocalDate.of(2024, 2, 27); today.isBefore(LocalDate.of(2024, 3, 3)); today = today.plusDays(1)) {
+            clock.today = today;
+            long restricted = ageCohortCounters.counts().atLeastAge().get(18);
+            for (LocalDate birthDate = today.minusYears(18).minusDays(2);
+                 birthDate.isBefore(today.minusYears(18).plusDays(2));
+                 birthDate = birthDate.plusDays(1)) {
+                ageCohortCounters.add(birthDate, 1);
+
+                assertThat(ageCohortCounters.counts().atLeastAge().get(18) - restricted)
+                        .as("birth date %s on %s", birthDate, today)
+                        .isEqualTo(validator.isValid(birthDate, context) ? 1L : 0L);
+
+                ageCohortCounters.add(birthDate, -1);
+            }
+        }
+    }
+
+    @Test
+    void counts_shouldMoveUsersAcrossThresholds_WhenDayRollsOver() {
+        clock.today = LocalDate.of(2024, 6, 16);
+
+        assertThat(ageCohortCounters.counts().atLeastAge()).containsEntry(18, 5L);
+
+        clock.today = LocalDate.of(2025, 6, 15);
+
+        assertThat(ageCohortCounters.counts().atLeastAge())
+                .containsExactly(Map.entry(18, 6L), Map.entry(21, 4L), Map.entry(65, 1L));
+    }
+
+    @Test
+    void onUserChanged_shouldApplyCreateUpdateAndDelete() {
+        UUID userId = UUID.randomUUID();
+
+        ageCohortCounters.onUserChanged(new UserChangedEvent(UserChangeType.CREATED, userId, LocalDate.of(2010, 1, 1), null));
+        ageCohortCounters.onUserChanged(new UserChangedEvent(UserChangeType.UPDATED, userId,
+                LocalDate.of(1950, 1, 1), LocalDate.of(2010, 1, 1)));
+
+        assertThat(ageCohortCounters.counts().total()).isEqualTo(7);
+        assertThat(ageCohortCounters.counts().atLeastAge()).containsEntry(65, 1L);
+
+        ageCohortCounters.onUserChanged(new UserChangedEvent(UserChangeType.UPDATED, userId, null, LocalDate.of(1950, 1, 1)));
+        ageCohortCounters.onUserChanged(new UserChangedEvent(UserChangeType.DELETED, userId, null, LocalDate.of(1950, 1, 1)));
+
+        assertThat(ageCohortCounters.counts().total()).isEqualTo(6);
+        assertThat(ageCohortCounters.counts().atLeastAge()).containsEntry(65, 0L);
+    }
+
+    @Test
+    void histogram_shouldCountUsersByCompletedYears() {
+        List<AgeHistogramBucket> histogram = ageCohortCounters.histogram(65);
+
+        assertThat(histogram).hasSize(66);
+        assertThat(histogram.get(17).count()).isEqualTo(1);
+        assertThat(histogram.get(18).count()).isEqualTo(1);
+        assertThat(histogram.get(21).count()).isEqualTo(1);
+        assertThat(histogram.get(34).count()).isEqualTo(2);
+        assertThat(histogram.get(65).count()).isEqualTo(1);
+        assertThat(histogram.stream().mapToLong(AgeHistogramBucket::count).sum()).isEqualTo(6);
+    }
+
+    private static final class MutableClock extends Clock {
+        private LocalDate today;
+
+        private MutableClock(LocalDate today) {
+            this.today = today;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return today.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package clear.solutions.demo.aggregate;
+
+import clear.solutions.demo.cache.BirthDateRange;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.response.BirthDateRangeCount;
+import clear.solutions.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "user.counts.parallel.split-days=7")
+class BirthDateRangeCounterTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private BirthDateRangeCounter birthDateRangeCounter;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void count_shouldReturnSameCounts_WhenParallelModeSplitsTheSpan() {
+        createUser(LocalDate.of(1977, 1, 1));
+        createUser(LocalDate.of(1977, 1, 31));
+        createUser(LocalDate.of(1977, 2, 15));
+        createUser(LocalDate.of(1977, 3, 31));
+        List<BirthDateRange> ranges = List.of(
+                new BirthDateRange(LocalDate.of(1977, 1, 1), LocalDate.of(1977, 1, 31)),
+                new BirthDateRange(LocalDate.of(1977, 2, 1), LocalDate.of(1977, 2, 28)),
+                new BirthDateRange(LocalDate.of(1977, 1, 15), LocalDate.of(1977, 3, 31)),
+                new BirthDateRange(LocalDate.of(1977, 4, 1), LocalDate.of(1977, 4, 30)));
+
+        List<BirthDateRangeCount> sequential = birthDateRangeCounter.count(ranges, false);
+        List<BirthDateRangeCount> parallel = birthDateRangeCounter.count(ranges, true);
+
+        assertThat(sequential).extracting(BirthDateRangeCount::count).containsExactly(2L, 1L, 3L, 0L);
+        assertThat(parallel).isEqualTo(sequential);
+    }
+
+    @Test
+    void countWithIds_shouldAssignUsersToEveryOverlappingRange() {
+        User early = createUser(LocalDate.of(1978, 1, 10));
+        User late = createUser(LocalDate.of(1978, 1, 20));
+        List<BirthDateRange> ranges = List.of(
+                new BirthDateRange(LocalDate.of(1978, 1, 15), LocalDate.of(1978, 1, 31)),
+                new BirthDateRange(LocalDate.of(1978, 1, 1), LocalDate.of(1978, 1, 31)),
+                new BirthDateRange(LocalDate.of(1978, 1, 1), LocalDate.of(1978, 1, 10)));
+
+        List<BirthDateRangeCount> counts = birthDateRangeCounter.countWithIds(ranges);
+
+        assertThat(counts).extracting(BirthDateRangeCount::ids).containsExactly(
+                List.of(late.getId()),
+                List.of(early.getId(), late.getId()),
+                List.of(early.getId()));
+        assertThat(counts).extracting(BirthDateRangeCount::count).containsExactly(1L, 2L, 1L);
+    }
+
+    private User createUser(LocalDate birthDate) {
+        return userService.createUser(new UserModificationRequest(email(birthDate.toString()), "illya", "zuiew",
+                birthDate, null, null));
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
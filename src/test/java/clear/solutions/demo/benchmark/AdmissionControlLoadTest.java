@@ -0,0 +1,71 @@
+package clear.solutions.demo.benchmark;
+
+import clear.solutions.demo.DemoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+@Tag("benchmark")
+class AdmissionControlLoadTest {
+    private static final int USERS = Integer.getInteger("benchmark.users", 200_000);
+    private static final long SEED = Long.getLong("benchmark.seed", 42);
+    private static final int SCAN_CONCURRENCY = Integer.getInteger("benchmark.scan-concurrency", 64);
+    private static final int CREATE_CONCURRENCY = Integer.getInteger("benchmark.create-concurrency", 16);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 20));
+
+    @Test
+    void wideRangeScans_shouldNotStarveCreates_WhenAdmissionControlIsEnabled() throws Exception {
+        LoadResult[] unlimited = runLoad("admission disabled", false);
+        LoadResult[] limited = runLoad("admission enabled", true);
+
+        for (LoadResult result : unlimited) {
+            System.out.println(result);
+        }
+        for (LoadResult result : limited) {
+            System.out.println(result);
+        }
+    }
+
+    private LoadResult[] runLoad(String name, boolean admission) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties("server.port=0")
+                .run("--user.cache.by-range.maximum-users=0",
+                        "--user.admission.enabled=" + admission)) {
+            new UserDataSeeder(context).seed(USERS, SEED);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            CompletableFuture<LoadResult> scans = CompletableFuture.supplyAsync(() -> run(name + ", range scans",
+                    SCAN_CONCURRENCY, sequence -> {
+                        LocalDate fromDate = LocalDate.of(1940, 1, 1).plusDays(sequence % 20_000);
+                        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users?fromDate="
+                                        + fromDate + "&toDate=" + fromDate.plusYears(1)))
+                                .GET()
+                                .build();
+                    }));
+            LoadResult creates = run(name + ", creates", CREATE_CONCURRENCY, sequence ->
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users?email=load." + UUID.randomUUID()
+                                    + "@example.com&firstName=first&lastName=last&birthDate=1990-01-01"))
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build());
+            return new LoadResult[]{scans.join(), creates};
+        }
+    }
+
+    private static LoadResult run(String name, int concurrency, IntFunction<HttpRequest> requests) {
+        try {
+            return new LoadGenerator().run(name, concurrency, DURATION, requests);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
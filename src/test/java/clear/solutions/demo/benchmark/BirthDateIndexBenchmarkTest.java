@@ -0,0 +1,53 @@
+package clear.solutions.demo.benchmark;
+
+import clear.solutions.demo.index.BirthDateIndex;
+import clear.solutions.demo.model.UserBirthDate;
+import clear.solutions.demo.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("benchmark")
+class BirthDateIndexBenchmarkTest {
+    private static final int USERS = Integer.getInteger("benchmark.users", 10_000_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 1_000);
+    private static final long FIRST_BIRTH_DAY = LocalDate.of(1940, 1, 1).toEpochDay();
+    private static final int BIRTH_DAYS = 25_000;
+
+    @Test
+    void findByBirthDateRange_shouldAnswerMonthRangeUnderMillisecond() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.streamBirthDates()).thenReturn(IntStream.range(0, USERS)
+                .mapToObj(i -> new UserBirthDate(UUID.randomUUID(), LocalDate.ofEpochDay(FIRST_BIRTH_DAY + (long) i * BIRTH_DAYS / USERS))));
+        BirthDateIndex birthDateIndex = new BirthDateIndex(userRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 65_536);
+        birthDateIndex.rebuild();
+        for (int i = 0; i < 10_000; i++) {
+            birthDateIndex.put(UUID.randomUUID(), LocalDate.ofEpochDay(FIRST_BIRTH_DAY + i % BIRTH_DAYS));
+        }
+
+        LocalDate fromDate = LocalDate.of(1980, 1, 1);
+        LocalDate toDate = LocalDate.of(1980, 1, 31);
+        for (int i = 0; i < ITERATIONS; i++) {
+            birthDateIndex.findByBirthDateRange(fromDate, toDate);
+        }
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            found = birthDateIndex.findByBirthDateRange(fromDate, toDate).size();
+        }
+        double averageMillis = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+
+        System.out.printf("Memory index over %d users: %d users per month range in %.3f ms%n", USERS, found, averageMillis);
+        assertThat(averageMillis).isLessThan(1.0);
+    }
+}
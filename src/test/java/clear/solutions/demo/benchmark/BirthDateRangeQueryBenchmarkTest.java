@@ -0,0 +1,75 @@
+package clear.solutions.demo.benchmark;
+
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BirthDateRangeQueryBenchmarkTest {
+    private static final int USERS = Integer.getInteger("benchmark.users", 1_000_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50);
+    private static final LocalDate FROM_DATE = LocalDate.of(1990, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(1990, 1, 31);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void seedUsers() {
+        jdbcTemplate.update("""
+                INSERT INTO "user" ("id", "email", "first_name", "last_name", "birth_date")
+                SELECT RANDOM_UUID(), 'user' || X || '.' || RANDOM_UUID() || '@example.com', 'first' || X, 'last' || X,
+                       DATEADD('DAY', -CAST(RAND() * 25000 AS INT), DATE '2005-01-01')
+                FROM SYSTEM_RANGE(1, ?)""", USERS);
+    }
+
+    @Test
+    void entityQueryWithoutIndex_versus_projectionQueryWithIndex() {
+        jdbcTemplate.execute("DROP INDEX \"idx_user_birth_date_id\"");
+        double beforeMillis = measure(() -> transactionTemplate.execute(status -> entityManager
+                .createQuery("select u from User u where u.birthDate >= :fromDate and u.birthDate <= :toDate", User.class)
+                .setParameter("fromDate", FROM_DATE)
+                .setParameter("toDate", TO_DATE)
+                .getResultList()));
+
+        jdbcTemplate.execute("CREATE INDEX \"idx_user_birth_date_id\" ON \"user\" (\"birth_date\", \"id\")");
+        double afterMillis = measure(() -> userRepository.findViewsByBirthDateRange(FROM_DATE, TO_DATE));
+
+        System.out.printf("Range query over %d users: entity/full scan %.3f ms, projection/index %.3f ms%n",
+                USERS, beforeMillis, afterMillis);
+        assertThat(afterMillis).isLessThan(beforeMillis);
+    }
+
+    private double measure(Supplier<List<?>> query) {
+        for (int i = 0; i < ITERATIONS / 5 + 1; i++) {
+            query.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(query.get()).isNotEmpty();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
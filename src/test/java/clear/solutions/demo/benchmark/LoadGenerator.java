@@ -0,0 +1,132 @@
+package clear.solutions.demo.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+public final class LoadGenerator {
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public LoadResult run(String name, int concurrency, Duration duration, IntFunction<HttpRequest> requests) throws Exception {
+        return runMix(name, concurrency, duration, sequence -> new LoadRequest(name, requests.apply(sequence))).total();
+    }
+
+    public LoadReport runMix(String name, int concurrency, Duration duration, IntFunction<LoadRequest> requests) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long allocatedBefore = allocatedBytes();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Map<String, WorkerResult>>> futures = new ArrayList<>(concurrency);
+            for (int worker = 0; worker < concurrency; worker++) {
+                int workerId = worker;
+                futures.add(workers.submit(() -> runWorker(workerId, concurrency, deadline, requests)));
+            }
+
+            Map<String, WorkerResult> byOperation = new TreeMap<>();
+            for (Future<Map<String, WorkerResult>> future : futures) {
+                future.get().forEach((operation, result) -> byOperation.merge(operation, result, WorkerResult::merge));
+            }
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            WorkerResult total = new WorkerResult(new long[0], 0, 0);
+            List<LoadResult> operations = new ArrayList<>(byOperation.size());
+            for (Map.Entry<String, WorkerResult> operation : byOperation.entrySet()) {
+                total = total.merge(operation.getValue());
+                operations.add(operation.getValue().toLoadResult(operation.getKey(), duration));
+            }
+            return new LoadReport(name, total.toLoadResult(name, duration), operations,
+                    allocated / 1_048_576.0 / (duration.toNanos() / 1_000_000_000.0));
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Map<String, WorkerResult> runWorker(int workerId, int concurrency, long deadline, IntFunction<LoadRequest> requests) {
+        Map<String, WorkerResult> results = new LinkedHashMap<>();
+        int sequence = workerId;
+        while (System.nanoTime() < deadline) {
+            LoadRequest request = requests.apply(sequence);
+            sequence += concurrency;
+            boolean failed;
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request.request(), HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (Exception e) {
+                failed = true;
+            }
+            long latency = System.nanoTime() - start;
+            results.computeIfAbsent(request.operation(), operation -> new WorkerResult(new long[1024], 0, 0))
+                    .record(latency, failed);
+        }
+        return results;
+    }
+
+    private static long allocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return 0;
+        }
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+
+    private static double percentile(long[] sortedLatencies, int count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static final class WorkerResult {
+        private long[] latencies;
+        private int count;
+        private long errors;
+
+        private WorkerResult(long[] latencies, int count, long errors) {
+            this.latencies = latencies;
+            this.count = count;
+            this.errors = errors;
+        }
+
+        private void record(long latency, boolean failed) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (failed) {
+                errors++;
+            }
+        }
+
+        private WorkerResult merge(WorkerResult other) {
+            long[] merged = Arrays.copyOf(latencies, count + other.count);
+            System.arraycopy(other.latencies, 0, merged, count, other.count);
+            return new WorkerResult(merged, merged.length, errors + other.errors);
+        }
+
+        private LoadResult toLoadResult(String name, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new LoadResult(name, count, errors, count / (duration.toNanos() / 1_000_000_000.0),
+                    percentile(sorted, count, 0.50), percentile(sorted, count, 0.90), percentile(sorted, count, 0.99),
+                    percentile(sorted, count, 0.999), percentile(sorted, count, 1.0));
+        }
+    }
+}
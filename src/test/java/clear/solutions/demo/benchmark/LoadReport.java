@@ -0,0 +1,14 @@
+package clear.solutions.demo.benchmark;
+
+import java.util.List;
+
+public record LoadReport(String name, LoadResult total, List<LoadResult> operations, double allocatedMegabytesPerSecond) {
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(total.toString())
+                .append(String.format(", allocation %.1f MB/s", allocatedMegabytesPerSecond));
+        operations.forEach(operation -> report.append(System.lineSeparator()).append("  ").append(operation));
+        return report.toString();
+    }
+}
@@ -0,0 +1,6 @@
+package clear.solutions.demo.benchmark;
+
+import java.net.http.HttpRequest;
+
+public record LoadRequest(String operation, HttpRequest request) {
+}
@@ -0,0 +1,11 @@
+package clear.solutions.demo.benchmark;
+
+public record LoadResult(String name, long requests, long errors, double throughputPerSecond,
+                         double p50Millis, double p90Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d requests, %d errors, %.1f req/s, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms",
+                name, requests, errors, throughputPerSecond, p50Millis, p90Millis, p99Millis, p999Millis, maxMillis);
+    }
+}
@@ -0,0 +1,232 @@
+package clear.solutions.demo.benchmark;
+
+import clear.solutions.demo.DemoApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+class MixedWorkloadLoadTest {
+    private static final int USERS = Integer.getInteger("benchmark.users", 200_000);
+    private static final long SEED = Long.getLong("benchmark.seed", 42);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("benchmark.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 30));
+    private static final String MIX = System.getProperty("benchmark.mix",
+            "find-by-range=60,create=10,update=10,update-email=10,delete=10");
+    private static final int RANGE_DAYS = Integer.getInteger("benchmark.range-days", 30);
+    private static final Path RESULTS_DIR = Path.of(System.getProperty("benchmark.results-dir", "target/load-results"));
+    private static final String BASELINE = System.getProperty("benchmark.baseline", "");
+    private static final String APP_ARGS = System.getProperty("benchmark.app-args", "--user.admission.enabled=false");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Test
+    void mixedReadWriteWorkload_shouldWriteComparableResults() throws Exception {
+        Map<String, Integer> mix = parseMix(MIX);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties("server.port=0")
+                .run(APP_ARGS.isBlank() ? new String[0] : APP_ARGS.trim().split("\\s+"))) {
+            UserDataSeeder seeder = new UserDataSeeder(context);
+            UserDataSeeder.SeedResult seeded = seeder.seed(USERS, SEED);
+            System.out.println(seeded);
+
+            List<UUID> userIds = new ArrayList<>(seeder.userIds());
+            assertThat(userIds).hasSize(USERS);
+            Collections.shuffle(userIds, new Random(SEED));
+            Workload workload = new Workload(((WebServerApplicationContext) context).getWebServer().getPort(), mix, userIds);
+
+            LoadGenerator loadGenerator = new LoadGenerator();
+            System.out.println(loadGenerator.runMix("warmup", CONCURRENCY, WARMUP, workload.requests("warmup")));
+            LoadReport report = loadGenerator.runMix("mixed workload", CONCURRENCY, DURATION, workload.requests("measured"));
+            System.out.println(report);
+
+            Path resultFile = writeResults(mix, seeded, report);
+            System.out.println("Results written to " + resultFile.toAbsolutePath());
+            if (!BASELINE.isBlank()) {
+                printComparison(objectMapper.readTree(Path.of(BASELINE).toFile()), report);
+            }
+        }
+    }
+
+    private Path writeResults(Map<String, Integer> mix, UserDataSeeder.SeedResult seeded, LoadReport report) throws Exception {
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("users", USERS);
+        configuration.put("seed", SEED);
+        configuration.put("concurrency", CONCURRENCY);
+        configuration.put("warmupSeconds", WARMUP.toSeconds());
+        configuration.put("durationSeconds", DURATION.toSeconds());
+        configuration.put("rangeDays", RANGE_DAYS);
+        configuration.put("mix", mix);
+        configuration.put("appArgs", APP_ARGS);
+
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("javaVersion", System.getProperty("java.version"));
+        environment.put("javaVm", System.getProperty("java.vm.name"));
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environment.put("maxHeapMegabytes", Runtime.getRuntime().maxMemory() / 1_048_576);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("name", report.name());
+        results.put("timestamp", Instant.now());
+        results.put("configuration", configuration);
+        results.put("environment", environment);
+        results.put("seedMillis", seeded.elapsed().toMillis());
+        results.put("allocatedMegabytesPerSecond", report.allocatedMegabytesPerSecond());
+        results.put("total", report.total());
+        results.put("operations", report.operations());
+
+        Files.createDirectories(RESULTS_DIR);
+        Path resultFile = RESULTS_DIR.resolve("mixed-workload-"
+                + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC).format(Instant.now()) + ".json");
+        objectMapper.writeValue(resultFile.toFile(), results);
+        return resultFile;
+    }
+
+    private static void printComparison(JsonNode baseline, LoadReport report) {
+        System.out.println("Compared to " + BASELINE + ":");
+        List<LoadResult> results = new ArrayList<>(report.operations());
+        results.add(report.total());
+        List<JsonNode> baselineResults = new ArrayList<>();
+        baseline.path("operations").forEach(baselineResults::add);
+        baselineResults.add(baseline.path("total"));
+        for (LoadResult result : results) {
+            baselineResults.stream()
+                    .filter(node -> node.path("name").asText().equals(result.name()))
+                    .findFirst()
+                    .ifPresent(node -> System.out.printf("  %s: throughput %+.1f%%, p50 %+.1f%%, p99 %+.1f%%, errors %d -> %d%n",
+                            result.name(),
+                            change(node.path("throughputPerSecond").asDouble(), result.throughputPerSecond()),
+                            change(node.path("p50Millis").asDouble(), result.p50Millis()),
+                            change(node.path("p99Millis").asDouble(), result.p99Millis()),
+                            node.path("errors").asLong(), result.errors()));
+        }
+        System.out.printf("  allocation: %+.1f%%%n",
+                change(baseline.path("allocatedMegabytesPerSecond").asDouble(), report.allocatedMegabytesPerSecond()));
+    }
+
+    private static double change(double baseline, double current) {
+        return baseline == 0 ? 0 : (current - baseline) / baseline * 100;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] weight = entry.trim().split("=");
+            weights.put(weight[0].trim(), Integer.parseInt(weight[1].trim()));
+        }
+        assertThat(weights.keySet()).isSubsetOf("find-by-range", "create", "update", "update-email", "delete");
+        return weights;
+    }
+
+    private static final class Workload {
+        private final String baseUrl;
+        private final List<String> operations = new ArrayList<>();
+        private final int[] cumulativeWeights;
+        private final List<UUID> userIds;
+        private final int updatableUsers;
+        private final AtomicInteger deleted = new AtomicInteger();
+
+        private Workload(int port, Map<String, Integer> mix, List<UUID> userIds) {
+            this.baseUrl = "http://localhost:" + port + "/users";
+            this.cumulativeWeights = new int[mix.size()];
+            int total = 0;
+            for (Map.Entry<String, Integer> weight : mix.entrySet()) {
+                total += weight.getValue();
+                cumulativeWeights[operations.size()] = total;
+                operations.add(weight.getKey());
+            }
+            this.userIds = userIds;
+            this.updatableUsers = userIds.size() / 2;
+        }
+
+        private IntFunction<LoadRequest> requests(String phase) {
+            return sequence -> {
+                SplittableRandom random = new SplittableRandom(SEED * 0x9E3779B97F4A7C15L + sequence);
+                int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+                int index = 0;
+                while (cumulativeWeights[index] <= pick) {
+                    index++;
+                }
+                String operation = operations.get(index);
+                return new LoadRequest(operation, request(operation, phase, sequence, random));
+            };
+        }
+
+        private HttpRequest request(String operation, String phase, int sequence, SplittableRandom random) {
+            return switch (operation) {
+                case "find-by-range" -> {
+                    LocalDate fromDate = UserDataSeeder.AS_OF.minusYears(95).plusDays(random.nextInt(77 * 365));
+                    yield get("?fromDate=" + fromDate + "&toDate=" + fromDate.plusDays(RANGE_DAYS));
+                }
+                case "create" -> post("?" + userForm(operation, phase, sequence, random));
+                case "update" -> put("/" + updatableUser(random) + "?" + userForm(operation, phase, sequence, random));
+                case "update-email" -> put("/" + updatableUser(random) + "/email?email=" + email(operation, phase, sequence));
+                case "delete" -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + deletableUser())).DELETE().build();
+                default -> throw new IllegalArgumentException("Unknown operation " + operation);
+            };
+        }
+
+        private static String userForm(String operation, String phase, int sequence, SplittableRandom random) {
+            return "email=" + email(operation, phase, sequence)
+                    + "&firstName=Load&lastName=Test"
+                    + "&birthDate=" + UserDataSeeder.AS_OF.minusYears(18).minusDays(random.nextInt(60 * 365));
+        }
+
+        private UUID updatableUser(SplittableRandom random) {
+            return userIds.get(random.nextInt(updatableUsers));
+        }
+
+        private UUID deletableUser() {
+            int next = deleted.getAndIncrement();
+            return next < userIds.size() - updatableUsers ? userIds.get(userIds.size() - 1 - next) : UUID.randomUUID();
+        }
+
+        private static String email(String prefix, String phase, int sequence) {
+            return prefix + "." + phase + "." + sequence + "@example.com";
+        }
+
+        private HttpRequest get(String query) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + query)).GET().build();
+        }
+
+        private HttpRequest post(String query) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + query)).POST(HttpRequest.BodyPublishers.noBody()).build();
+        }
+
+        private HttpRequest put(String pathAndQuery) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery)).PUT(HttpRequest.BodyPublishers.noBody()).build();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package clear.solutions.demo.benchmark;
+
+import clear.solutions.demo.DemoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+
+@Tag("benchmark")
+class ReactiveStackLoadTest {
+    private static final int USERS = Integer.getInteger("benchmark.users", 200_000);
+    private static final long SEED = Long.getLong("benchmark.seed", 42);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1_000);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 20));
+
+    @Test
+    void rangeQueries_servletStack_versus_reactiveStack() throws Exception {
+        String servlet = runLoad("servlet stack", "default");
+        String reactive = runLoad("reactive stack", "reactive");
+
+        System.out.println(servlet);
+        System.out.println(reactive);
+    }
+
+    private String runLoad(String name, String profile) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles(profile)
+                .properties("server.port=0")
+                .run("--user.cache.by-range.maximum-users=0",
+                        "--user.admission.enabled=false")) {
+            new UserDataSeeder(context).seed(USERS, SEED);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            int baselineThreads = threads.getThreadCount();
+            threads.resetPeakThreadCount();
+            LoadResult result = new LoadGenerator().run(name, CONCURRENCY, DURATION, sequence -> {
+                LocalDate fromDate = LocalDate.of(1940, 1, 1).plusDays(sequence % 20_000);
+                return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users?fromDate="
+                                + fromDate + "&toDate=" + fromDate.plusDays(7)))
+                        .GET()
+                        .build();
+            });
+            int serverThreads = threads.getPeakThreadCount() - baselineThreads - CONCURRENCY;
+            int cores = Runtime.getRuntime().availableProcessors();
+            return String.format("%s, %.1f req/s per core, ~%d server threads for %d connections",
+                    result, result.throughputPerSecond() / cores, Math.max(serverThreads, 0), CONCURRENCY);
+        }
+    }
+}
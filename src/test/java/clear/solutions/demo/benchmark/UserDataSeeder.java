@@ -0,0 +1,97 @@
+package clear.solutions.demo.benchmark;
+
+import clear.solutions.demo.aggregate.AgeCohortCounters;
+import clear.solutions.demo.index.BirthDateIndex;
+import clear.solutions.demo.index.NameIndex;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public final class UserDataSeeder {
+    public static final LocalDate AS_OF = LocalDate.of(2025, 1, 1);
+
+    private static final String[] FIRST_NAMES = {
+            "Olivia", "Liam", "Emma", "Noah", "Amelia", "Oliver", "Ava", "Elijah", "Sophia", "James",
+            "Isabella", "William", "Mia", "Benjamin", "Charlotte", "Lucas", "Harper", "Henry", "Evelyn", "Theodore",
+            "Anna", "Oleksandr", "Sofiia", "Dmytro", "Mariia", "Andrii", "Yuliia", "Maksym", "Kateryna", "Ivan"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Wilson", "Anderson", "Taylor", "Thomas", "Moore", "Jackson", "Martin", "Lee", "Thompson", "White",
+            "Melnyk", "Shevchenko", "Kovalenko", "Bondarenko", "Tkachenko", "Kravchenko", "Oliinyk", "Koval", "Shevchuk", "Polishchuk"};
+    private static final String[] DOMAINS = {"example.com", "example.org", "example.net", "mail.example.com"};
+    private static final String INSERT_SQL = """
+            INSERT INTO "user" ("id", "email", "first_name", "last_name", "birth_date", "address", "phone")
+            SELECT CAST(CAST((CAST(? AS BIGINT) + "n") * 65536 + 28672 AS BINARY(8))
+                        || CAST(BITOR(BITAND(CAST(SUBSTRING(HASH('SHA-256', CAST(CAST(? AS VARCHAR) || '-' || "n" AS VARBINARY)) FROM 1 FOR 8) AS BIGINT),
+                                             4611686018427387903), -9223372036854775808) AS BINARY(8)) AS UUID),
+                   LOWER("first_name") || '.' || LOWER("last_name") || '.' || "n" || '@' || "domain",
+                   "first_name", "last_name", "birth_date", "address", "phone"
+            FROM (SELECT CAST(? AS BIGINT) + X AS "n",
+                         %1$s[1 + CAST(FLOOR(POWER(RAND(), 2) * %2$d) AS INT)] AS "first_name",
+                         %3$s[1 + CAST(FLOOR(POWER(RAND(), 2) * %4$d) AS INT)] AS "last_name",
+                         %5$s[1 + CAST(FLOOR(RAND() * %6$d) AS INT)] AS "domain",
+                         DATEADD('DAY', -CAST(365.25 * (18 + 77 * POWER((RAND() + RAND() + RAND()) / 3, 1.7)) AS INT), CAST(? AS DATE)) AS "birth_date",
+                         CASE WHEN RAND() < 0.4 THEN (1 + MOD(X * 7919, 9999)) || ' ' || %3$s[1 + CAST(FLOOR(RAND() * %4$d) AS INT)] || ' Street' END AS "address",
+                         CASE WHEN RAND() < 0.7 THEN '+380' || LPAD(CAST(MOD(X * 104729, 1000000000) AS VARCHAR), 9, '0') END AS "phone"
+                  FROM SYSTEM_RANGE(1, ?))""".formatted(
+            array(FIRST_NAMES), FIRST_NAMES.length, array(LAST_NAMES), LAST_NAMES.length, array(DOMAINS), DOMAINS.length);
+
+    private final ApplicationContext context;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserDataSeeder(ApplicationContext context) {
+        this.context = context;
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    public SeedResult seed(int users, long seed) {
+        long start = System.nanoTime();
+        long firstNumber = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"user\"", Long.class);
+        jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement random = connection.createStatement()) {
+                random.execute("CALL RAND(" + seed + ")");
+            }
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                insert.setLong(1, AS_OF.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+                insert.setLong(2, seed);
+                insert.setLong(3, firstNumber);
+                insert.setObject(4, AS_OF);
+                insert.setInt(5, users);
+                return insert.executeUpdate();
+            }
+        });
+        context.getBeanProvider(NameIndex.class).ifAvailable(NameIndex::rebuild);
+        context.getBeanProvider(BirthDateIndex.class).ifAvailable(BirthDateIndex::rebuild);
+        context.getBeanProvider(AgeCohortCounters.class).ifAvailable(AgeCohortCounters::rebuild);
+        return new SeedResult(users, seed, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    public List<UUID> userIds() {
+        return jdbcTemplate.queryForList("SELECT \"id\" FROM \"user\" ORDER BY \"id\"", UUID.class);
+    }
+
+    private static String array(String[] values) {
+        return Arrays.stream(values)
+                .map(value -> "'" + value + "'")
+                .collect(Collectors.joining(", ", "ARRAY[", "]"));
+    }
+
+    public record SeedResult(int users, long seed, Duration elapsed) {
+
+        @Override
+        public String toString() {
+            return String.format("seeded %d users (seed %d) in %d ms, %.0f rows/s",
+                    users, seed, elapsed.toMillis(), users / (elapsed.toNanos() / 1_000_000_000.0));
+        }
+    }
+}
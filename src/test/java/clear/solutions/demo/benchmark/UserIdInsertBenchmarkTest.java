@@ -0,0 +1,59 @@
+package clear.solutions.demo.benchmark;
+
+import clear.solutions.demo.id.UserIdStrategy;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@SpringBootTest
+class UserIdInsertBenchmarkTest {
+    private static final int USERS = Integer.getInteger("benchmark.users", 10_000_000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batch-size", 1_000);
+    private static final Date BIRTH_DATE = Date.valueOf(LocalDate.of(1990, 1, 1));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void randomV4Ids_versus_timeOrderedV7Ids() {
+        insertUsers(UserIdStrategy.V4, Math.min(USERS, 100_000));
+        insertUsers(UserIdStrategy.V7, Math.min(USERS, 100_000));
+
+        double v4RowsPerSecond = insertUsers(UserIdStrategy.V4, USERS);
+        double v7RowsPerSecond = insertUsers(UserIdStrategy.V7, USERS);
+
+        System.out.printf("Insert of %d users in batches of %d: v4 %.0f rows/s, v7 %.0f rows/s%n",
+                USERS, BATCH_SIZE, v4RowsPerSecond, v7RowsPerSecond);
+        assertThat(v7RowsPerSecond).isGreaterThan(v4RowsPerSecond);
+    }
+
+    private double insertUsers(UserIdStrategy strategy, int users) {
+        jdbcTemplate.execute("TRUNCATE TABLE \"user\"");
+        long start = System.nanoTime();
+        for (int from = 0; from < users; from += BATCH_SIZE) {
+            List<Object[]> arguments = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(from + BATCH_SIZE, users); i++) {
+                arguments.add(new Object[]{strategy.next(), "user" + i + "@example.com", "first", "last", BIRTH_DATE});
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate("""
+                    INSERT INTO "user" ("id", "email", "first_name", "last_name", "birth_date")
+                    VALUES (?, ?, ?, ?, ?)""", arguments));
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        jdbcTemplate.execute("TRUNCATE TABLE \"user\"");
+        return users / seconds;
+    }
+}
@@ -0,0 +1,81 @@
+package clear.solutions.demo.benchmark;
+
+import clear.solutions.demo.outbox.QueueUserChangeSink;
+import clear.solutions.demo.outbox.UserOutboxRelay;
+import clear.solutions.demo.response.UserChange;
+import clear.solutions.demo.service.event.UserChangeType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "user.outbox.poll-interval=1h",
+        "user.outbox.batch-size=1000",
+        "user.outbox.sink.queue.enabled=true",
+        "user.outbox.sink.queue.capacity=2000000",
+        "user.outbox.sink.file.enabled=true"
+})
+class UserOutboxRelayBenchmarkTest {
+    private static final int CHANGES = Integer.getInteger("benchmark.changes", 1_000_000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batch-size", 1_000);
+    @TempDir
+    private static Path directory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private UserOutboxRelay userOutboxRelay;
+    @Autowired
+    private QueueUserChangeSink queueUserChangeSink;
+
+    @DynamicPropertySource
+    static void changeFile(DynamicPropertyRegistry registry) {
+        registry.add("user.outbox.sink.file.path", () -> directory.resolve("changes.jsonl").toString());
+    }
+
+    @Test
+    void relay_shouldPublishChangesInOffsetOrder() {
+        UUID[] userIds = new UUID[1_000];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = UUID.randomUUID();
+        }
+        long recordStart = System.nanoTime();
+        for (int from = 0; from < CHANGES; from += BATCH_SIZE) {
+            List<Object[]> arguments = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(from + BATCH_SIZE, CHANGES); i++) {
+                arguments.add(new Object[]{userIds[i % userIds.length], UserChangeType.UPDATED.name(), Instant.now()});
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO \"user_outbox\" (\"user_id\", \"type\", \"occurred_at\") VALUES (?, ?, ?)", arguments));
+        }
+        double recordSeconds = (System.nanoTime() - recordStart) / 1_000_000_000.0;
+
+        long relayStart = System.nanoTime();
+        int relayed = userOutboxRelay.relay();
+        double relaySeconds = (System.nanoTime() - relayStart) / 1_000_000_000.0;
+
+        List<UserChange> changes = new ArrayList<>(CHANGES);
+        queueUserChangeSink.drainTo(changes, Integer.MAX_VALUE);
+        System.out.printf("Outbox of %d changes in batches of %d: recorded %.0f rows/s, relayed to queue and fsynced file %.0f rows/s%n",
+                CHANGES, BATCH_SIZE, CHANGES / recordSeconds, relayed / relaySeconds);
+        assertThat(changes).hasSize(CHANGES);
+        assertThat(changes).extracting(UserChange::offset).isSorted();
+    }
+}
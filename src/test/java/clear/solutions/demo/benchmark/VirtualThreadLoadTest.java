@@ -0,0 +1,53 @@
+package clear.solutions.demo.benchmark;
+
+import clear.solutions.demo.DemoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Tag("benchmark")
+class VirtualThreadLoadTest {
+    private static final int USERS = Integer.getInteger("benchmark.users", 200_000);
+    private static final long SEED = Long.getLong("benchmark.seed", 42);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 20));
+
+    @Test
+    void rangeQueries_platformThreads_versus_virtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads require Java 21");
+
+        LoadResult platform = runLoad("platform threads", false);
+        LoadResult virtual = runLoad("virtual threads", true);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+    }
+
+    private LoadResult runLoad(String name, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties("server.port=0")
+                .run("--user.threads.virtual.enabled=" + virtualThreads,
+                        "--user.cache.by-range.maximum-users=0",
+                        "--user.admission.enabled=false")) {
+            new UserDataSeeder(context).seed(USERS, SEED);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            return new LoadGenerator().run(name, CONCURRENCY, DURATION, sequence -> {
+                LocalDate fromDate = LocalDate.of(1940, 1, 1).plusDays(sequence % 20_000);
+                return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users?fromDate="
+                                + fromDate + "&toDate=" + fromDate.plusDays(7)))
+                        .GET()
+                        .build();
+            });
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package clear.solutions.demo.cache;
+
+import clear.solutions.demo.model.UserView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+    private static final LocalDate FROM_DATE = LocalDate.of(2003, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(2003, 12, 31);
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private UserView user;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(100, 1000, Duration.ofMinutes(1), meterRegistry);
+        user = new UserView(UUID.randomUUID(), "e@gmail.com", "i", "z", LocalDate.of(2003, 7, 28), null, null, 0);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getByRange_shouldLoadOnce_WhenRangeIsRequestedTwice() {
+        loadRange();
+        loadRange();
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users.by-range").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users.by-range").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void evict_shouldInvalidateRange_WhenBirthDateIsInsideRange() {
+        loadRange();
+
+        userCache.evict(UUID.randomUUID(), LocalDate.of(2003, 3, 1));
+        loadRange();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evict_shouldKeepRange_WhenBirthDateIsOutsideRange() {
+        loadRange();
+
+        userCache.evict(UUID.randomUUID(), LocalDate.of(1999, 3, 1));
+        loadRange();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void evict_shouldInvalidateRange_WhenRangeContainsUser() {
+        loadRange();
+
+        userCache.evict(user.id(), null);
+        loadRange();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void getByRange_shouldNotCacheLoadedRange_WhenEvictedDuringLoad() {
+        userCache.getByRange(FROM_DATE, TO_DATE, range -> {
+            loads.incrementAndGet();
+            userCache.evict(user.id(), user.birthDate());
+            return List.of(user);
+        });
+        loadRange();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evict_shouldInvalidateOnlyRangesContainingBirthDateOrUser() {
+        LocalDate otherFromDate = LocalDate.of(1980, 1, 1);
+        loadRange();
+        userCache.getByRange(otherFromDate, otherFromDate.plusDays(10), range -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        userCache.evict(user.id(), LocalDate.of(1980, 1, 5));
+        loadRange();
+        userCache.getByRange(otherFromDate, otherFromDate.plusDays(10), range -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        userCache.evict(UUID.randomUUID(), LocalDate.of(1990, 1, 5));
+        loadRange();
+
+        assertThat(loads).hasValue(4);
+    }
+
+    private void loadRange() {
+        userCache.getByRange(FROM_DATE, TO_DATE, range -> {
+            loads.incrementAndGet();
+            return List.of(user);
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package clear.solutions.demo.config;
+
+import clear.solutions.demo.aggregate.AgeCohortCounters;
+import clear.solutions.demo.request.validation.validator.BirthDateValidator;
+import clear.solutions.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("startup")
+class StartupConfigTest {
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void startupProfile_shouldInitializeServicesLazily_ButKeepStartupHooksEager() {
+        assertThat(beanFactory.getBeanDefinition(beanFactory.getBeanNamesForType(UserService.class)[0]).isLazyInit())
+                .isTrue();
+        assertThat(beanFactory.getBeanDefinition(beanFactory.getBeanNamesForType(AgeCohortCounters.class)[0]).isLazyInit())
+                .isFalse();
+        assertThat(beanFactory.containsSingleton(beanFactory.getBeanNamesForType(AgeCohortCounters.class)[0]))
+                .isTrue();
+    }
+
+    @Test
+    void userRuntimeHints_shouldAllowConstructorInjectedValidator() {
+        RuntimeHints hints = new RuntimeHints();
+
+        new StartupConfig.UserRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(BirthDateValidator.class)).accepts(hints);
+    }
+}
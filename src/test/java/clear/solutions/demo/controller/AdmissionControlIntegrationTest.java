@@ -0,0 +1,96 @@
+package clear.solutions.demo.controller;
+
+import clear.solutions.demo.admission.AdaptiveConcurrencyLimit;
+import clear.solutions.demo.admission.AdmissionControlInterceptor;
+import clear.solutions.demo.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "user.admission.endpoints.find-user-by-range.max-concurrency=1",
+        "user.admission.endpoints.find-user-by-range.adaptive=false",
+        "user.admission.endpoints.find-user-by-range.retry-after=2s"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class AdmissionControlIntegrationTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AdmissionControlInterceptor admissionControlInterceptor;
+
+    @Test
+    void findUserByRange_ShouldReturn503WithRetryAfter_WhenBulkheadIsFull() throws Exception {
+        AdaptiveConcurrencyLimit rangeLimit = admissionControlInterceptor.limit("findUserByRange");
+        assertThat(rangeLimit.tryAcquire()).isTrue();
+        try {
+            MvcResult mvcResult = mockMvc.perform(rangeRequest())
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                    .andReturn();
+            assertThat(mvcResult.getResolvedException()).isInstanceOf(ServiceOverloadedException.class);
+
+            mockMvc.perform(post("/users")
+                            .param("email", email("email"))
+                            .param("firstName", "illya")
+                            .param("lastName", "zuiew")
+                            .param("birthDate", "2003-07-28"))
+                    .andExpect(status().isCreated());
+        } finally {
+            rangeLimit.release(0);
+        }
+
+        mockMvc.perform(rangeRequest())
+                .andExpect(status().isOk());
+        assertThat(rangeLimit.inFlight()).isZero();
+    }
+
+    @Test
+    void prometheus_ShouldExposeAdmissionState() throws Exception {
+        AdaptiveConcurrencyLimit rangeLimit = admissionControlInterceptor.limit("findUserByRange");
+        rangeLimit.tryAcquire();
+        try {
+            mockMvc.perform(rangeRequest())
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            rangeLimit.release(0);
+        }
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(metrics)
+                .contains("user_admission_limit{endpoint=\"findUserByRange\",} 1.0")
+                .contains("user_admission_in_flight{endpoint=\"createUser\",}")
+                .containsPattern("user_admission_rejected_total\\{endpoint=\"findUserByRange\",} [1-9]");
+    }
+
+    private static RequestBuilder rangeRequest() {
+        return get("/users")
+                .param("fromDate", "2003-07-01")
+                .param("toDate", "2003-07-30");
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+}
@@ -0,0 +1,68 @@
+package clear.solutions.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointIntegrationTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheus_ShouldExposeServiceRepositoryAndPoolMetrics() throws Exception {
+        mockMvc.perform(post("/users")
+                        .param("email", email("email"))
+                        .param("firstName", "illya")
+                        .param("lastName", "zuiew")
+                        .param("birthDate", "2003-07-28"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/users")
+                        .param("email", email("email"))
+                        .param("firstName", "illya")
+                        .param("lastName", "zuiew")
+                        .param("birthDate", "2003-07-28"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/users")
+                        .param("fromDate", "2003-07-01")
+                        .param("toDate", "2003-07-30"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/users/" + UUID.randomUUID() + "/email")
+                        .param("email", email("e")))
+                .andExpect(status().isNotFound());
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(metrics)
+                .contains("user_service_calls_seconds_count{implementation=\"UserServiceImp\",method=\"createUser\",outcome=\"success\",}")
+                .contains("user_service_calls_seconds_count{implementation=\"UserServiceImp\",method=\"createUser\",outcome=\"conflict\",}")
+                .contains("user_service_calls_seconds_count{implementation=\"UserServiceImp\",method=\"updateUserEmail\",outcome=\"not_found\",}")
+                .contains("user_repository_queries_seconds_count{method=\"findViewsByBirthDateRange\",outcome=\"success\",}")
+                .contains("user_range_result_size_users_count{implementation=\"UserServiceImp\",}")
+                .contains("hikaricp_connections_pending")
+                .contains("hikaricp_connections_saturation");
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
@@ -0,0 +1,263 @@
+package clear.solutions.demo.controller;
+
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.response.UserPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveUserControllerIntegrationTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void findUserByRange_ShouldReturn200_WhenRangeIsCorrect() {
+        createUser("2003-07-28");
+
+        webTestClient.get()
+                .uri("/users?fromDate=2003-07-28&toDate=2003-07-30")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].email").isEqualTo(email("2003-07-28"))
+                .jsonPath("$[0].firstName").isEqualTo("illya")
+                .jsonPath("$[0].birthDate").isEqualTo("2003-07-28");
+    }
+
+    @Test
+    void findUserByRange_ShouldReturn400_WhenRangeIsIncorrect() {
+        webTestClient.get()
+                .uri("/users?fromDate=2043-07-28&toDate=2003-07-30")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void streamUserByRange_ShouldReturnNdjsonInBirthDateOrder() {
+        createUser("1994-05-03");
+        createUser("1994-05-01");
+
+        assertThat(webTestClient.get()
+                .uri("/users/stream?fromDate=1994-05-01&toDate=1994-05-31")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserView.class)
+                .getResponseBody()
+                .map(UserView::birthDate)
+                .map(Object::toString)
+                .collectList()
+                .block())
+                .containsExactly("1994-05-01", "1994-05-03");
+    }
+
+    @Test
+    void findUserPageByRange_ShouldFollowContinuationTokenToLastPage() {
+        createUser("1993-03-01");
+        createUser("1993-03-02");
+        createUser("1993-03-03");
+
+        UserPage firstPage = webTestClient.get()
+                .uri("/users/page?fromDate=1993-03-01&toDate=1993-03-31&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserPage.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(firstPage.users()).extracting(UserView::birthDate).map(Object::toString)
+                .containsExactly("1993-03-01", "1993-03-02");
+        assertThat(firstPage.continuationToken()).isNotNull();
+
+        webTestClient.get()
+                .uri("/users/page?fromDate=1993-03-01&toDate=1993-03-31&size=2&continuationToken={token}", firstPage.continuationToken())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.users.length()").isEqualTo(1)
+                .jsonPath("$.users[0].birthDate").isEqualTo("1993-03-03")
+                .jsonPath("$.continuationToken").doesNotExist();
+    }
+
+    @Test
+    void findUserPageByRange_ShouldReturn400_WhenContinuationTokenIsInvalid() {
+        webTestClient.get()
+                .uri("/users/page?fromDate=1993-03-01&toDate=1993-03-31&continuationToken=not-a-token")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void createUsers_ShouldImportValidItemsAndReportRejectedOnes() {
+        createUser("1992-02-01");
+        String body = String.join("\n",
+                importItem(email("batch-1"), "1992-02-02"),
+                importItem(email("1992-02-01"), "1992-02-03"),
+                importItem("not-an-email", "1992-02-04"),
+                importItem(email("batch-1").toUpperCase(), "1992-02-05"),
+                importItem(email("batch-2"), "1992-02-06"));
+
+        webTestClient.post()
+                .uri("/users/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.createdCount").isEqualTo(2)
+                .jsonPath("$.errors.length()").isEqualTo(3)
+                .jsonPath("$.errors[0].index").isEqualTo(1)
+                .jsonPath("$.errors[0].messages[0]").isEqualTo("email: already exists")
+                .jsonPath("$.errors[1].index").isEqualTo(2)
+                .jsonPath("$.errors[1].messages[0]").isEqualTo("email: must be a well-formed email address")
+                .jsonPath("$.errors[2].index").isEqualTo(3)
+                .jsonPath("$.errors[2].messages[0]").isEqualTo("email: already exists");
+
+        webTestClient.get()
+                .uri("/users?fromDate=1992-02-01&toDate=1992-02-28")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3);
+    }
+
+    @Test
+    void createUsers_ShouldStopAtUnparsableItem() {
+        String body = importItem(email("batch-3"), "1991-02-02") + "\n{\"email\": \n" + importItem(email("batch-4"), "1991-02-03");
+
+        webTestClient.post()
+                .uri("/users/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.createdCount").isEqualTo(1)
+                .jsonPath("$.errors.length()").isEqualTo(1)
+                .jsonPath("$.errors[0].index").isEqualTo(1)
+                .jsonPath("$.errors[0].messages[0]").isEqualTo("item: could not be parsed, import stopped");
+    }
+
+    @Test
+    void createUser_ShouldReturn400_WhenUserIsUnderage() {
+        webTestClient.post()
+                .uri("/users")
+                .body(BodyInserters.fromFormData("email", email("email"))
+                        .with("firstName", "illya")
+                        .with("lastName", "zuiew")
+                        .with("birthDate", "2020-01-01"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void createUser_ShouldReturn409_WhenEmailIsTaken() {
+        createUser("1994-09-01");
+
+        webTestClient.post()
+                .uri("/users")
+                .body(BodyInserters.fromFormData("email", email("1994-09-01").toUpperCase())
+                        .with("firstName", "illya")
+                        .with("lastName", "zuiew")
+                        .with("birthDate", "1994-09-02"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void findUser_ShouldReturn404_WhenUserDoesNotExist() {
+        webTestClient.get()
+                .uri("/users/{userId}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void updateUserEmail_ShouldReturn200_WhenUserExists() {
+        UUID userId = createUser("1994-06-01").id();
+
+        webTestClient.put()
+                .uri("/users/{userId}/email?email={email}", userId, email("updated"))
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/users/{userId}", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo(email("updated"));
+    }
+
+    @Test
+    void updateUserEmail_ShouldReturn400_WhenEmailIsInvalid() {
+        webTestClient.put()
+                .uri("/users/{userId}/email?email=not-an-email", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void updateUser_ShouldReturn404_WhenUserDoesNotExist() {
+        webTestClient.put()
+                .uri("/users/{userId}", UUID.randomUUID())
+                .body(BodyInserters.fromFormData("email", email("email"))
+                        .with("firstName", "illya")
+                        .with("lastName", "zuiew")
+                        .with("birthDate", "1994-07-01"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void deleteUser_ShouldReturn204ThenUserIsGone() {
+        UUID userId = createUser("1994-08-01").id();
+
+        webTestClient.delete()
+                .uri("/users/{userId}", userId)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get()
+                .uri("/users/{userId}", userId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private UserView createUser(String birthDate) {
+        return webTestClient.post()
+                .uri("/users")
+                .body(BodyInserters.fromFormData("email", email(birthDate))
+                        .with("firstName", "illya")
+                        .with("lastName", "zuiew")
+                        .with("birthDate", birthDate))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(UserView.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private static String importItem(String email, String birthDate) {
+        return """
+                {"email": "%s", "firstName": "illya", "lastName": "zuiew", "birthDate": "%s"}""".formatted(email, birthDate);
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
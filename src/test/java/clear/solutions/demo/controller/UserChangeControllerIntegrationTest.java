@@ -0,0 +1,92 @@
+package clear.solutions.demo.controller;
+
+import clear.solutions.demo.outbox.UserOutboxRelay;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "user.outbox.poll-interval=1h")
+@AutoConfigureMockMvc
+class UserChangeControllerIntegrationTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserOutboxRelay userOutboxRelay;
+
+    @Test
+    void findUserChanges_ShouldReturnChangesAfterOffset() throws Exception {
+        String userId = createUser(email("changes"));
+        mockMvc.perform(put("/users/" + userId + "/email")
+                        .param("email", email("changed")))
+                .andExpect(status().isOk());
+        userOutboxRelay.relay();
+
+        MvcResult allChanges = mockMvc.perform(get("/users/changes").param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<Integer> offsets = JsonPath.read(allChanges.getResponse().getContentAsString(),
+                "$[?(@.userId == '%s')].offset".formatted(userId));
+        List<String> types = JsonPath.read(allChanges.getResponse().getContentAsString(),
+                "$[?(@.userId == '%s')].type".formatted(userId));
+        assertThat(types).containsExactly("CREATED", "EMAIL_UPDATED");
+
+        mockMvc.perform(get("/users/changes").param("after", offsets.get(0).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].offset", everyItem(greaterThan(offsets.get(0)))));
+    }
+
+    @Test
+    void findUserChanges_ShouldReturn400_WhenLimitIsTooLarge() throws Exception {
+        mockMvc.perform(get("/users/changes").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamUserChanges_ShouldReplayFromLastEventId() throws Exception {
+        String userId = createUser(email("stream"));
+        userOutboxRelay.relay();
+
+        MvcResult result = mockMvc.perform(get("/users/changes/stream")
+                        .header("Last-Event-ID", "0")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(result.getResponse().getContentAsString())
+                .contains("id:", "data:", userId, "\"CREATED\"");
+    }
+
+    private String createUser(String email) throws Exception {
+        return mockMvc.perform(post("/users")
+                        .param("email", email)
+                        .param("firstName", "illya")
+                        .param("lastName", "zuiew")
+                        .param("birthDate", "2003-07-28"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString().substring(7, 43);
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+}
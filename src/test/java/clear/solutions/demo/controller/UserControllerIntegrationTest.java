@@ -1,26 +1,44 @@
 package clear.solutions.demo.controller;
 
+import clear.solutions.demo.exception.DuplicateEmailException;
 import clear.solutions.demo.exception.EntityIdNotFoundException;
+import clear.solutions.demo.exception.InvalidContinuationTokenException;
+import clear.solutions.demo.exception.PreconditionFailedException;
+import clear.solutions.demo.export.BinaryUserRowWriter;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 class UserControllerIntegrationTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
     @Autowired
     private MockMvc mockMvc;
 
@@ -33,7 +51,7 @@ class UserControllerIntegrationTest {
                         .param("toDate", "2003-07-30"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].email", is("email@gmail.com")))
+                .andExpect(jsonPath("$[0].email", is(email("email"))))
                 .andExpect(jsonPath("$[0].firstName", is("illya")))
                 .andExpect(jsonPath("$[0].lastName", is("zuiew")))
                 .andExpect(jsonPath("$[0].birthDate", is("2003-07-28")));
@@ -53,15 +71,262 @@ class UserControllerIntegrationTest {
                 .isInstanceOf(MethodArgumentNotValidException.class);
     }
 
+    @Test
+    void findUserPageByRange_ShouldReturnNextPage_WhenContinuationTokenIsPassed() throws Exception {
+        createUser("1991-03-01");
+        createUser("1991-03-02");
+        createUser("1991-03-03");
+
+        MvcResult firstPage = mockMvc.perform(get("/users/page")
+                        .param("fromDate", "1991-03-01")
+                        .param("toDate", "1991-03-31")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(2)))
+                .andExpect(jsonPath("$.users[0].birthDate", is("1991-03-01")))
+                .andExpect(jsonPath("$.users[1].birthDate", is("1991-03-02")))
+                .andExpect(jsonPath("$.continuationToken", notNullValue()))
+                .andReturn();
+        String continuationToken = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.continuationToken");
+
+        mockMvc.perform(get("/users/page")
+                        .param("fromDate", "1991-03-01")
+                        .param("toDate", "1991-03-31")
+                        .param("size", "2")
+                        .param("continuationToken", continuationToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].birthDate", is("1991-03-03")))
+                .andExpect(jsonPath("$.continuationToken", nullValue()));
+    }
+
+    @Test
+    void findUserPageByRange_ShouldReturn400_WhenContinuationTokenIsInvalid() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/users/page")
+                        .param("fromDate", "1991-03-01")
+                        .param("toDate", "1991-03-31")
+                        .param("continuationToken", "not-a-token"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertThat(mvcResult.getResolvedException())
+                .isInstanceOf(InvalidContinuationTokenException.class);
+    }
+
+    @Test
+    void streamUserByRange_ShouldReturnNdjson_WhenRangeIsCorrect() throws Exception {
+        createUser("1992-05-01");
+        createUser("1992-05-02");
+
+        MvcResult mvcResult = mockMvc.perform(get("/users/stream")
+                        .param("fromDate", "1992-05-01")
+                        .param("toDate", "1992-05-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body.lines())
+                .hasSize(2)
+                .allSatisfy(line -> assertThat(line).contains("\"birthDate\":\"1992-05-0"));
+    }
+
+    @Test
+    void countUsersByRanges_ShouldReturnMonthlyCounts_WhenBucketIsMonth() throws Exception {
+        createUser("1976-01-05");
+        createUser("1976-01-25");
+        createUser("1976-03-10");
+
+        mockMvc.perform(get("/users/counts")
+                        .param("fromDate", "1976-01-15")
+                        .param("toDate", "1976-03-31")
+                        .param("bucket", "MONTH"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].fromDate", is("1976-01-15")))
+                .andExpect(jsonPath("$[0].toDate", is("1976-01-31")))
+                .andExpect(jsonPath("$[0].count", is(1)))
+                .andExpect(jsonPath("$[0].ids").doesNotExist())
+                .andExpect(jsonPath("$[1].count", is(0)))
+                .andExpect(jsonPath("$[2].fromDate", is("1976-03-01")))
+                .andExpect(jsonPath("$[2].count", is(1)));
+    }
+
+    @Test
+    void countUsersByRanges_ShouldReturnIds_WhenRangesAndIncludeIdsAreGiven() throws Exception {
+        createUser("1976-06-01");
+        createUser("1976-07-01");
+
+        mockMvc.perform(get("/users/counts")
+                        .param("range", "1976-06-01/1976-06-30", "1976-06-01/1976-07-31")
+                        .param("includeIds", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].count", is(1)))
+                .andExpect(jsonPath("$[0].ids", hasSize(1)))
+                .andExpect(jsonPath("$[1].count", is(2)))
+                .andExpect(jsonPath("$[1].ids", hasSize(2)));
+    }
+
+    @Test
+    void countUsersByRanges_ShouldReturn400_WhenSelectionIsIncomplete() throws Exception {
+        mockMvc.perform(get("/users/counts")
+                        .param("fromDate", "1976-01-01")
+                        .param("toDate", "1976-12-31"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/counts")
+                        .param("range", "1976-12-31/1976-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/counts")
+                        .param("fromDate", "1900-01-01")
+                        .param("toDate", "2000-01-01")
+                        .param("bucket", "DAY"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void countUsersByAgeCohorts_ShouldFollowCreateUpdateAndDelete() throws Exception {
+        long total = readCohortCount("$.total");
+        long atLeast65 = readCohortCount("$.atLeastAge.65");
+        String userId = createBasicUser();
+        assertThat(readCohortCount("$.total")).isEqualTo(total + 1);
+        assertThat(readCohortCount("$.atLeastAge.65")).isEqualTo(atLeast65);
+
+        mockMvc.perform(put("/users/" + userId)
+                        .param("email", email("e"))
+                        .param("firstName", "ill")
+                        .param("lastName", "zui")
+                        .param("birthDate", "1940-07-28"))
+                .andExpect(status().isOk());
+        assertThat(readCohortCount("$.total")).isEqualTo(total + 1);
+        assertThat(readCohortCount("$.atLeastAge.65")).isEqualTo(atLeast65 + 1);
+
+        mockMvc.perform(delete("/users/" + userId))
+                .andExpect(status().isNoContent());
+        assertThat(readCohortCount("$.total")).isEqualTo(total);
+        assertThat(readCohortCount("$.atLeastAge.65")).isEqualTo(atLeast65);
+    }
+
+    @Test
+    void findUserAgeHistogram_ShouldReturnBucketPerAge() throws Exception {
+        mockMvc.perform(get("/users/cohorts/histogram")
+                        .param("maxAge", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(31)))
+                .andExpect(jsonPath("$[0].age", is(0)))
+                .andExpect(jsonPath("$[30].age", is(30)));
+        assertThat(mockMvc.perform(get("/users/cohorts/histogram")
+                        .param("maxAge", "-1"))
+                .andReturn()
+                .getResponse()
+                .getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void exportUsers_ShouldReturnCsv_WhenFormatIsCsv() throws Exception {
+        createUser("1993-04-01");
+        mockMvc.perform(post("/users")
+                        .param("email", email("email"))
+                        .param("firstName", "illya")
+                        .param("lastName", "zuiew, jr.")
+                        .param("birthDate", "1993-04-02"))
+                .andExpect(status().isCreated());
+
+        MvcResult mvcResult = mockMvc.perform(get("/users/export")
+                        .param("fromDate", "1993-04-01")
+                        .param("toDate", "1993-04-30")
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body.lines())
+                .hasSize(3)
+                .first().isEqualTo("id,email,first_name,last_name,birth_date,address,phone,version");
+        assertThat(body.lines().skip(1))
+                .satisfiesExactly(
+                        line -> assertThat(line).endsWith("," + email("1993-04-01") + ",illya,zuiew,1993-04-01,,,0"),
+                        line -> assertThat(line).endsWith("," + email("email") + ",illya,\"zuiew, jr.\",1993-04-02,,,0"));
+    }
+
+    @Test
+    void exportUsers_ShouldReturnGzippedBinaryRows_WhenGzipIsAccepted() throws Exception {
+        createUser("1993-05-01");
+        createUser("1993-05-02");
+
+        MvcResult mvcResult = mockMvc.perform(get("/users/export")
+                        .param("fromDate", "1993-05-01")
+                        .param("toDate", "1993-05-31")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.users.rows"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        try (DataInputStream input = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(body)))) {
+            assertThat(input.readInt()).isEqualTo(BinaryUserRowWriter.MAGIC);
+            assertThat(readBinaryRowBirthDate(input)).isEqualTo(LocalDate.of(1993, 5, 1));
+            assertThat(readBinaryRowBirthDate(input)).isEqualTo(LocalDate.of(1993, 5, 2));
+            assertThat(input.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void exportUsers_ShouldReturn400_WhenRangeIsIncorrect() throws Exception {
+        mockMvc.perform(get("/users/export")
+                        .param("fromDate", "1993-05-31")
+                        .param("toDate", "1993-05-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findUser_ShouldReturnUpdatedUser_WhenUserWasUpdatedAfterRead() throws Exception {
+        String userId = createBasicUser();
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is(email("email"))));
+
+        mockMvc.perform(put("/users/" + userId + "/email")
+                        .param("email", email("changed")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is(email("changed"))));
+    }
+
+    @Test
+    void findUser_ShouldReturn404_WhenUserIdDoesNotExist() throws Exception {
+        mockMvc.perform(get("/users/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void createUser_ShouldReturn201_WhenUserDataCorrect() throws Exception {
         mockMvc.perform(post("/users")
-                        .param("email", "email@gmail.com")
+                        .param("email", email("email"))
                         .param("firstName", "illya")
                         .param("lastName", "zuiew")
                         .param("birthDate", "2003-07-28"))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.email", is("email@gmail.com")))
+                .andExpect(jsonPath("$.email", is(email("email"))))
                 .andExpect(jsonPath("$.firstName", is("illya")))
                 .andExpect(jsonPath("$.lastName", is("zuiew")))
                 .andExpect(jsonPath("$.birthDate", is("2003-07-28")));
@@ -70,7 +335,7 @@ class UserControllerIntegrationTest {
     @Test
     void createUser_ShouldReturn404_WhenUserHasAgeRestriction() throws Exception {
         MvcResult mvcResult = mockMvc.perform(post("/users")
-                        .param("email", "email@gmail.com")
+                        .param("email", email("email"))
                         .param("firstName", "illya")
                         .param("lastName", "zuiew")
                         .param("birthDate", "2023-07-28"))
@@ -95,12 +360,72 @@ class UserControllerIntegrationTest {
                 .isInstanceOf(MethodArgumentNotValidException.class);
     }
 
+    @Test
+    void createUsers_ShouldReportInvalidItems_WhenJsonArrayIsPassed() throws Exception {
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"email": "a.%1$s@gmail.com", "firstName": "a", "lastName": "a", "birthDate": "1993-01-01"},
+                                  {"email": "bgmail.com", "firstName": "b", "lastName": "b", "birthDate": "1993-01-02"},
+                                  {"email": "c.%1$s@gmail.com", "firstName": "c", "lastName": "c", "birthDate": "1993-01-03"}
+                                ]""".formatted(emailSuffix)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdCount", is(2)))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[0].messages[0]", is("email: must be a well-formed email address")));
+
+        mockMvc.perform(get("/users")
+                        .param("fromDate", "1993-01-01")
+                        .param("toDate", "1993-01-31"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void createUsers_ShouldReportMalformedItems_WhenStreamBreaksAfterValidItems() throws Exception {
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                                {"email": "a.%1$s@gmail.com", "firstName": "a", "lastName": "a", "birthDate": "1995-01-01"}
+                                {"email": "b.%1$s@gmail.com", "firstName": "b", "lastName": "b", "birthDate": "not-a-date"}
+                                {"email": "c.%1$s@gmail.com", "firstName": "c", "lastName": "c", "birthDate": "1995-01-03"}
+                                {"email": "d.%1$s@gmail.com", "firstName": }
+                                {"email": "e.%1$s@gmail.com", "firstName": "e", "lastName": "e", "birthDate": "1995-01-05"}
+                                """.formatted(emailSuffix)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdCount", is(2)))
+                .andExpect(jsonPath("$.errors", hasSize(2)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[0].messages[0]", is("item: could not be parsed")))
+                .andExpect(jsonPath("$.errors[1].index", is(3)))
+                .andExpect(jsonPath("$.errors[1].messages[0]", is("item: could not be parsed, import stopped")));
+
+        mockMvc.perform(get("/users")
+                        .param("fromDate", "1995-01-01")
+                        .param("toDate", "1995-01-31"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void createUsers_ShouldCreateUsers_WhenNdjsonIsPassed() throws Exception {
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                                {"email": "a.%1$s@gmail.com", "firstName": "a", "lastName": "a", "birthDate": "1994-01-01"}
+                                {"email": "b.%1$s@gmail.com", "firstName": "b", "lastName": "b", "birthDate": "1994-01-02"}
+                                """.formatted(emailSuffix)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdCount", is(2)))
+                .andExpect(jsonPath("$.errors", hasSize(0)));
+    }
+
     @Test
     void updateUser_ShouldReturn200_WhenUserIdExistAndDataIsCorrect() throws Exception {
         String userId = createBasicUser();
 
         mockMvc.perform(put("/users/" + userId)
-                        .param("email", "e@gmail.com")
+                        .param("email", email("e"))
                         .param("firstName", "ill")
                         .param("lastName", "zui")
                         .param("birthDate", "2005-07-28"))
@@ -113,7 +438,7 @@ class UserControllerIntegrationTest {
         String userId = UUID.randomUUID().toString();
 
         MvcResult mvcResult = mockMvc.perform(put("/users/" + userId)
-                        .param("email", "e@gmail.com")
+                        .param("email", email("e"))
                         .param("firstName", "ill")
                         .param("lastName", "zui")
                         .param("birthDate", "2005-07-28"))
@@ -130,7 +455,7 @@ class UserControllerIntegrationTest {
         String userId = createBasicUser();
 
         MvcResult mvcResult = mockMvc.perform(put("/users/" + userId)
-                        .param("email", "e@gmail.com")
+                        .param("email", email("e"))
                         .param("firstName", "ill")
                         .param("lastName", "zui")
                         .param("birthDate", "2010-07-28"))
@@ -141,12 +466,164 @@ class UserControllerIntegrationTest {
                 .isInstanceOf(MethodArgumentNotValidException.class);
     }
 
+    @Test
+    void findUser_ShouldReturn304_WhenIfNoneMatchEqualsCurrentVersion() throws Exception {
+        String userId = createBasicUser();
+
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version", is(0)));
+
+        mockMvc.perform(get("/users/" + userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void findUser_ShouldReturn200_WhenUserChangedSinceETag() throws Exception {
+        String userId = createBasicUser();
+        mockMvc.perform(put("/users/" + userId + "/email")
+                        .param("email", email("eee")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/" + userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.email", is(email("eee"))));
+    }
+
+    @Test
+    void updateUser_ShouldReturn412_WhenIfMatchIsStale() throws Exception {
+        String userId = createBasicUser();
+
+        mockMvc.perform(put("/users/" + userId)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .param("email", email("first"))
+                        .param("firstName", "illya")
+                        .param("lastName", "zuiew")
+                        .param("birthDate", "2003-07-28"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        MvcResult mvcResult = mockMvc.perform(put("/users/" + userId)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .param("email", email("second"))
+                        .param("firstName", "illya")
+                        .param("lastName", "zuiew")
+                        .param("birthDate", "2003-07-28"))
+                .andExpect(status().isPreconditionFailed())
+                .andReturn();
+
+        assertThat(mvcResult.getResolvedException())
+                .isInstanceOf(PreconditionFailedException.class);
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(jsonPath("$.email", is(email("first"))));
+    }
+
+    @Test
+    void updateUserEmail_ShouldReturn412_WhenIfMatchIsStale() throws Exception {
+        String userId = createBasicUser();
+        mockMvc.perform(put("/users/" + userId + "/email")
+                        .param("email", email("first")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/users/" + userId + "/email")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .param("email", email("second")))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateUserEmail_ShouldReturn404_WhenIfMatchIsSetAndUserIdDoesNotExist() throws Exception {
+        mockMvc.perform(put("/users/" + UUID.randomUUID() + "/email")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .param("email", email("eee")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchUser_ShouldUpdateOnlySuppliedFields() throws Exception {
+        String userId = createBasicUser();
+
+        mockMvc.perform(patch("/users/" + userId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":\"patched\",\"address\":\"Kyiv\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(jsonPath("$.firstName", is("patched")))
+                .andExpect(jsonPath("$.address", is("Kyiv")))
+                .andExpect(jsonPath("$.email", is(email("email"))))
+                .andExpect(jsonPath("$.birthDate", is("2003-07-28")))
+                .andExpect(jsonPath("$.version", is(1)));
+    }
+
+    @Test
+    void patchUser_ShouldClearOptionalField_WhenValueIsNull() throws Exception {
+        String userId = createBasicUser();
+        mockMvc.perform(patch("/users/" + userId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"phone\":\"+380000000000\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/users/" + userId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"phone\":null}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(jsonPath("$.phone", nullValue()));
+    }
+
+    @Test
+    void patchUser_ShouldReturn400_WhenSuppliedFieldIsInvalid() throws Exception {
+        String userId = createBasicUser();
+
+        mockMvc.perform(patch("/users/" + userId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"birthDate\":\"2020-01-01\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/users/" + userId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"email\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/users/" + userId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"id\":\"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(jsonPath("$.version", is(0)));
+    }
+
+    @Test
+    void patchUser_ShouldReturn404_WhenUserIdDoesNotExist() throws Exception {
+        mockMvc.perform(patch("/users/" + UUID.randomUUID())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":\"patched\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchUser_ShouldReturn412_WhenIfMatchIsStale() throws Exception {
+        String userId = createBasicUser();
+
+        mockMvc.perform(patch("/users/" + userId)
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":\"patched\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void updateUserEmail_ShouldReturn200_WhenUserIdExistAndDataIsCorrect() throws Exception {
         String userId = createBasicUser();
 
         mockMvc.perform(put("/users/" + userId + "/email")
-                        .param("email", "eee@gmail.com"))
+                        .param("email", email("eee")))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", is("User was updated")));
     }
@@ -156,7 +633,7 @@ class UserControllerIntegrationTest {
         String userId = UUID.randomUUID().toString();
 
         MvcResult mvcResult = mockMvc.perform(put("/users/" + userId + "/email")
-                        .param("email", "eee@gmail.com"))
+                        .param("email", email("eee")))
                 .andExpect(status().isNotFound())
                 .andReturn();
 
@@ -165,6 +642,149 @@ class UserControllerIntegrationTest {
                 .hasMessage("User is not found by id");
     }
 
+    @Test
+    void updateUserEmails_ShouldReturn200_WhenAllUserIdsExist() throws Exception {
+        String firstUserId = createBasicUser();
+        String secondUserId = createBasicUser(email("other"));
+
+        mockMvc.perform(put("/users/emails")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userId\":\"" + firstUserId + "\",\"email\":\"" + email("first") + "\"},"
+                                + "{\"userId\":\"" + secondUserId + "\",\"email\":\"" + email("second") + "\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is("Users were updated")));
+
+        mockMvc.perform(get("/users/" + secondUserId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is(email("second"))));
+    }
+
+    @Test
+    void updateUserEmails_ShouldReturn404AndKeepEmails_WhenAnyUserIdDoesNotExist() throws Exception {
+        String userId = createBasicUser();
+
+        mockMvc.perform(put("/users/emails")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userId\":\"" + userId + "\",\"email\":\"" + email("first") + "\"},"
+                                + "{\"userId\":\"" + UUID.randomUUID() + "\",\"email\":\"" + email("second") + "\"}]"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is(email("email"))));
+    }
+
+    @Test
+    void updateUserEmails_ShouldReturn400_WhenEmailIsInvalid() throws Exception {
+        String userId = createBasicUser();
+
+        mockMvc.perform(put("/users/emails")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userId\":\"" + userId + "\",\"email\":\"not-an-email\"}]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createUser_ShouldReturn409_WhenEmailDiffersOnlyByCase() throws Exception {
+        createBasicUser();
+
+        MvcResult mvcResult = mockMvc.perform(post("/users")
+                        .param("email", email("email").toUpperCase())
+                        .param("firstName", "illya")
+                        .param("lastName", "zuiew")
+                        .param("birthDate", "2003-07-28"))
+                .andExpect(status().isConflict())
+                .andReturn();
+
+        assertThat(mvcResult.getResolvedException())
+                .isInstanceOf(DuplicateEmailException.class)
+                .hasMessage("User with this email already exists");
+    }
+
+    @Test
+    void updateUserEmail_ShouldReturn409_WhenEmailBelongsToAnotherUser() throws Exception {
+        createBasicUser();
+        String userId = createBasicUser(email("other"));
+
+        mockMvc.perform(put("/users/" + userId + "/email")
+                        .param("email", email("email")))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/users/" + userId))
+                .andExpect(jsonPath("$.email", is(email("other"))));
+    }
+
+    @Test
+    void createUsers_ShouldReportDuplicateEmails_WhenEmailIsTaken() throws Exception {
+        createBasicUser();
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"email": "email.%1$s@gmail.com", "firstName": "a", "lastName": "a", "birthDate": "1992-01-01"},
+                                  {"email": "b.%1$s@gmail.com", "firstName": "b", "lastName": "b", "birthDate": "1992-01-02"},
+                                  {"email": "B.%1$s@gmail.com", "firstName": "c", "lastName": "c", "birthDate": "1992-01-03"}
+                                ]""".formatted(emailSuffix)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdCount", is(1)))
+                .andExpect(jsonPath("$.errors", hasSize(2)))
+                .andExpect(jsonPath("$.errors[0].index", is(0)))
+                .andExpect(jsonPath("$.errors[1].index", is(2)))
+                .andExpect(jsonPath("$.errors[1].messages[0]", is("email: already exists")));
+    }
+
+    @Test
+    void findUserByEmail_ShouldReturnUser_WhenEmailCaseDiffers() throws Exception {
+        String userId = createBasicUser();
+
+        mockMvc.perform(get("/users/by-email")
+                        .param("email", email("email").toUpperCase()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(userId)))
+                .andExpect(jsonPath("$.email", is(email("email"))));
+    }
+
+    @Test
+    void findUserByEmail_ShouldReturn404_WhenEmailIsUnknown() throws Exception {
+        mockMvc.perform(get("/users/by-email")
+                        .param("email", email("unknown")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchUsersByName_ShouldReturnPrefixMatchesInNameOrder() throws Exception {
+        String name = "n" + emailSuffix.substring(0, 8);
+        String renamedUserId = createBasicUser();
+        mockMvc.perform(post("/users")
+                        .param("email", email("second"))
+                        .param("firstName", name + "b")
+                        .param("lastName", "Zuiew")
+                        .param("birthDate", "2003-07-28"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(patch("/users/" + renamedUserId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":\"" + name.toUpperCase() + "a\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/search")
+                        .param("prefix", name)
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(renamedUserId)))
+                .andExpect(jsonPath("$[0].firstName", is(name.toUpperCase() + "a")))
+                .andExpect(jsonPath("$[0].lastName", is("zuiew")))
+                .andExpect(jsonPath("$[1].firstName", is(name + "b")));
+    }
+
+    @Test
+    void searchUsersByName_ShouldReturn400_WhenPrefixIsBlank() throws Exception {
+        mockMvc.perform(get("/users/search")
+                        .param("prefix", " "))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deleteUser_ShouldReturn204_WhenUserIdExist() throws Exception {
         String userId = createBasicUser();
@@ -187,8 +807,12 @@ class UserControllerIntegrationTest {
     }
 
     private String createBasicUser() throws Exception {
+        return createBasicUser(email("email"));
+    }
+
+    private String createBasicUser(String email) throws Exception {
         return mockMvc.perform(post("/users")
-                        .param("email", "email@gmail.com")
+                        .param("email", email)
                         .param("firstName", "illya")
                         .param("lastName", "zuiew")
                         .param("birthDate", "2003-07-28"))
@@ -196,4 +820,35 @@ class UserControllerIntegrationTest {
                 .getResponse()
                 .getContentAsString().substring(7, 43);
     }
+
+    private long readCohortCount(String path) throws Exception {
+        String body = mockMvc.perform(get("/users/cohorts"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return ((Number) JsonPath.read(body, path)).longValue();
+    }
+
+    private LocalDate readBinaryRowBirthDate(DataInputStream input) throws IOException {
+        int rowLength = input.readInt();
+        input.readLong();
+        input.readLong();
+        LocalDate birthDate = LocalDate.ofEpochDay(input.readInt());
+        input.skipNBytes(rowLength - 2 * Long.BYTES - Integer.BYTES);
+        return birthDate;
+    }
+
+    private void createUser(String birthDate) throws Exception {
+        mockMvc.perform(post("/users")
+                        .param("email", email(birthDate))
+                        .param("firstName", "illya")
+                        .param("lastName", "zuiew")
+                        .param("birthDate", birthDate))
+                .andExpect(status().isCreated());
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
 }
\ No newline at end of file
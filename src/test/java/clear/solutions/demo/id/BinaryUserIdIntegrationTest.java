@@ -0,0 +1,51 @@
+package clear.solutions.demo.id;
+
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"user.id.strategy=v4", "user.id.storage=binary"})
+class BinaryUserIdIntegrationTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void idColumn_shouldBeStoredAsBinary() {
+        String dataType = jdbcTemplate.queryForObject("""
+                SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS
+                WHERE TABLE_NAME = 'user' AND COLUMN_NAME = 'id'""", String.class);
+
+        assertThat(dataType).containsIgnoringCase("BINARY");
+    }
+
+    @Test
+    void userLifecycle_shouldWork_WhenIdsAreBinary() {
+        User user = userService.createUser(new UserModificationRequest(email("e"), "i", "z",
+                LocalDate.of(2003, 7, 28), null, null));
+
+        userService.updateUserEmail(user.getId(), email("new"));
+
+        assertThat(user.getId().version()).isEqualTo(4);
+        assertThat(userService.findById(user.getId()).email()).isEqualTo(email("new"));
+        assertThat(userService.findByBirthDateRange(LocalDate.of(2003, 7, 28), LocalDate.of(2003, 7, 28)))
+                .anySatisfy(found -> assertThat(found.id()).isEqualTo(user.getId()));
+        userService.deleteUserById(user.getId());
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
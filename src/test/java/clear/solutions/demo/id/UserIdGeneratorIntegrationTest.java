@@ -0,0 +1,91 @@
+package clear.solutions.demo.id;
+
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.repository.UserRepository;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserIdGeneratorIntegrationTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void createUser_shouldAssignTimeOrderedIds() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(userService.createUser(request(i)).getId());
+        }
+
+        assertThat(ids).allSatisfy(id -> assertThat(id.version()).isEqualTo(7))
+                .isSortedAccordingTo(UUID::compareTo);
+    }
+
+    @Test
+    void saveAll_shouldInsertGeneratedIdsInJdbcBatches() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            users.add(new User(null, email("u" + i), null, "i", "z", LocalDate.of(2003, 7, 28), null, null, 0));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        userRepository.saveAll(users);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(250);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void insertAll_shouldInsertInJdbcBatchesAndDetachUsers() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            users.add(new User(null, email("d" + i), null, "i", "z", LocalDate.of(2003, 7, 28), null, null, 0));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        boolean managed = transactionTemplate.execute(status -> {
+            userRepository.insertAll(users);
+            return users.stream().anyMatch(entityManager::contains);
+        });
+
+        assertThat(managed).isFalse();
+        assertThat(users).allSatisfy(user -> assertThat(user.getId()).isNotNull());
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(250);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private UserModificationRequest request(int index) {
+        return new UserModificationRequest(email("e" + index), "i", "z", LocalDate.of(2003, 7, 28), null, null);
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
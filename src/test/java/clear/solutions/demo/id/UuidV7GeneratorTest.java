@@ -0,0 +1,107 @@
+package clear.solutions.demo.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+    private final MutableClock clock = new MutableClock(1_700_000_000_000L);
+    private final UuidV7Generator generator = new UuidV7Generator(clock);
+
+    @Test
+    void next_shouldSetVersionVariantAndTimestamp() {
+        UUID uuid = generator.next();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7Generator.timestampMillis(uuid)).isEqualTo(1_700_000_000_000L);
+    }
+
+    @Test
+    void next_shouldIncreaseWithinSameMillisecond() {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(generator.next());
+        }
+
+        assertThat(uuids).isSortedAccordingTo(UUID::compareTo).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void next_shouldStayMonotonic_WhenClockMovesBackwards() {
+        UUID before = generator.next();
+        clock.millis -= 5_000;
+
+        UUID after = generator.next();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(UuidV7Generator.timestampMillis(after)).isEqualTo(1_700_000_000_000L);
+    }
+
+    @Test
+    void next_shouldGenerateUniqueIncreasingIds_WhenCalledConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> uuids = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        uuids.add(generator.next());
+                    }
+                    return uuids;
+                }));
+            }
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> uuids = future.get();
+                assertThat(uuids).isSortedAccordingTo(UUID::compareTo);
+                all.addAll(uuids);
+            }
+            assertThat(all).hasSize(160_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile long millis;
+
+        private MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
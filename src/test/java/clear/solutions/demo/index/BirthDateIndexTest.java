@@ -0,0 +1,105 @@
+package clear.solutions.demo.index;
+
+import clear.solutions.demo.model.UserBirthDate;
+import clear.solutions.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BirthDateIndexTest {
+    private static final LocalDate FROM_DATE = LocalDate.of(2000, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(2000, 12, 31);
+
+    private UserRepository userRepository;
+    private BirthDateIndex birthDateIndex;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        birthDateIndex = new BirthDateIndex(userRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2);
+    }
+
+    @Test
+    void findByBirthDateRange_shouldReturnUsersOrderedByBirthDate_WhenUsersAreInRange() {
+        UUID march = UUID.randomUUID();
+        UUID january = UUID.randomUUID();
+        UUID outside = UUID.randomUUID();
+        UUID june = UUID.randomUUID();
+
+        birthDateIndex.put(march, LocalDate.of(2000, 3, 1));
+        birthDateIndex.put(january, LocalDate.of(2000, 1, 1));
+        birthDateIndex.put(outside, LocalDate.of(2001, 1, 1));
+        birthDateIndex.put(june, LocalDate.of(2000, 6, 1));
+
+        assertThat(birthDateIndex.findByBirthDateRange(FROM_DATE, TO_DATE))
+                .containsExactly(january, march, june);
+    }
+
+    @Test
+    void put_shouldMoveUser_WhenBirthDateIsUpdated() {
+        UUID userId = UUID.randomUUID();
+        birthDateIndex.put(userId, LocalDate.of(2000, 3, 1));
+        birthDateIndex.put(UUID.randomUUID(), LocalDate.of(1999, 3, 1));
+
+        birthDateIndex.put(userId, LocalDate.of(1990, 3, 1));
+
+        assertThat(birthDateIndex.findByBirthDateRange(FROM_DATE, TO_DATE)).isEmpty();
+        assertThat(birthDateIndex.findByBirthDateRange(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31)))
+                .containsExactly(userId);
+    }
+
+    @Test
+    void remove_shouldDropUser_WhenUserIsMergedIntoSnapshot() {
+        UUID removed = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        birthDateIndex.put(removed, LocalDate.of(2000, 3, 1));
+        birthDateIndex.put(kept, LocalDate.of(2000, 4, 1));
+
+        birthDateIndex.remove(removed);
+
+        assertThat(birthDateIndex.findByBirthDateRange(FROM_DATE, TO_DATE)).containsExactly(kept);
+    }
+
+    @Test
+    void findByBirthDateRange_shouldOrderUsersBornOnSameDayByIdLikeDatabase() {
+        LocalDate birthDate = LocalDate.of(2000, 5, 5);
+        UUID first = new UUID(1, 0);
+        UUID last = new UUID(-1, 0);
+        UUID second = new UUID(2, 0);
+        UUID third = new UUID(2, -1);
+        when(userRepository.streamBirthDates()).thenReturn(Stream.of(
+                new UserBirthDate(first, birthDate),
+                new UserBirthDate(last, birthDate)));
+        birthDateIndex.rebuild();
+
+        birthDateIndex.put(third, birthDate);
+
+        assertThat(birthDateIndex.findByBirthDateRange(FROM_DATE, TO_DATE)).containsExactly(first, third, last);
+
+        birthDateIndex.put(second, birthDate);
+
+        assertThat(birthDateIndex.findByBirthDateRange(FROM_DATE, TO_DATE)).containsExactly(first, second, third, last);
+    }
+
+    @Test
+    void rebuild_shouldLoadUsersFromRepository() {
+        UUID userId = UUID.randomUUID();
+        when(userRepository.streamBirthDates()).thenReturn(Stream.of(
+                new UserBirthDate(UUID.randomUUID(), LocalDate.of(1990, 1, 1)),
+                new UserBirthDate(userId, LocalDate.of(2000, 5, 5))));
+
+        birthDateIndex.rebuild();
+
+        assertThat(birthDateIndex.findByBirthDateRange(FROM_DATE, TO_DATE)).containsExactly(userId);
+    }
+}
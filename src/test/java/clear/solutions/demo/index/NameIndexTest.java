@@ -0,0 +1,109 @@
+package clear.solutions.demo.index;
+
+import clear.solutions.demo.model.UserName;
+import clear.solutions.demo.repository.UserRepository;
+import clear.solutions.demo.response.UserNameMatch;
+import clear.solutions.demo.service.event.UserChangeType;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NameIndexTest {
+    private UserRepository userRepository;
+    private NameIndex nameIndex;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        nameIndex = new NameIndex(userRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)), 2);
+    }
+
+    @Test
+    void findByPrefix_shouldMatchFirstLastAndFullNameIgnoringCaseAndAccents() {
+        UUID zoe = UUID.randomUUID();
+        UUID anna = UUID.randomUUID();
+        nameIndex.put(zoe, "Zoë", "Adams");
+        nameIndex.put(anna, "Anna", "Zoller");
+
+        assertThat(nameIndex.findByPrefix("ZOE", 10)).extracting(UserNameMatch::id).containsExactly(zoe);
+        assertThat(nameIndex.findByPrefix("zo", 10)).extracting(UserNameMatch::id).containsExactly(zoe, anna);
+        assertThat(nameIndex.findByPrefix("anna zol", 10)).extracting(UserNameMatch::id).containsExactly(anna);
+        assertThat(nameIndex.findByPrefix("ad", 10)).singleElement()
+                .isEqualTo(new UserNameMatch(zoe, "Zoë", "Adams"));
+    }
+
+    @Test
+    void findByPrefix_shouldReturnEachUserOnceAndRespectLimit() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        nameIndex.put(first, "Mark", "Markov");
+        nameIndex.put(second, "Marta", "Lee");
+        nameIndex.put(third, "Maria", "Stone");
+
+        assertThat(nameIndex.findByPrefix("mar", 10)).extracting(UserNameMatch::id).containsExactly(third, first, second);
+        assertThat(nameIndex.findByPrefix("mar", 2)).extracting(UserNameMatch::id).containsExactly(third, first);
+    }
+
+    @Test
+    void onUserChanged_shouldFollowRenamesPartialUpdatesAndDeletes() {
+        UUID userId = UUID.randomUUID();
+        nameIndex.onUserChanged(new UserChangedEvent(UserChangeType.CREATED, userId, null, null, "Illya", "Zuiew"));
+        nameIndex.onUserChanged(new UserChangedEvent(UserChangeType.UPDATED, userId, null, null, "Ilya", null));
+
+        assertThat(nameIndex.findByPrefix("illya", 10)).isEmpty();
+        assertThat(nameIndex.findByPrefix("ilya zu", 10)).singleElement()
+                .isEqualTo(new UserNameMatch(userId, "Ilya", "Zuiew"));
+
+        nameIndex.onUserChanged(new UserChangedEvent(UserChangeType.DELETED, userId, null, null));
+
+        assertThat(nameIndex.findByPrefix("zu", 10)).isEmpty();
+    }
+
+    @Test
+    void findByPrefix_shouldMergeRenamedUsersIntoSnapshotOrder() {
+        UUID anna = UUID.randomUUID();
+        UUID bohdan = UUID.randomUUID();
+        UUID renamed = UUID.randomUUID();
+        when(userRepository.streamNames()).thenReturn(Stream.of(
+                new UserName(anna, "Anna", "Kovalenko"),
+                new UserName(bohdan, "Bohdan", "Kovalchuk"),
+                new UserName(renamed, "Yurii", "Shevchenko")));
+        nameIndex.rebuild();
+
+        nameIndex.put(renamed, null, "Kovalenko");
+        nameIndex.put(renamed, null, "Kovalev");
+
+        assertThat(nameIndex.findByPrefix("koval", 10)).extracting(UserNameMatch::id)
+                .containsExactly(bohdan, anna, renamed);
+        assertThat(nameIndex.findByPrefix("kovale", 10)).extracting(UserNameMatch::id)
+                .containsExactly(anna, renamed);
+        assertThat(nameIndex.findByPrefix("shev", 10)).isEmpty();
+    }
+
+    @Test
+    void rebuild_shouldLoadNamesAndKeepApplyingChanges() {
+        UUID stored = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        when(userRepository.streamNames()).thenReturn(Stream.of(
+                new UserName(stored, "Olena", "Bondar"),
+                new UserName(removed, "Oleh", "Bondarenko")));
+        nameIndex.rebuild();
+        UUID created = UUID.randomUUID();
+
+        nameIndex.remove(removed);
+        nameIndex.put(created, "Olga", "Bond");
+
+        assertThat(nameIndex.findByPrefix("ol", 10)).extracting(UserNameMatch::id).containsExactly(stored, created);
+        assertThat(nameIndex.findByPrefix("bond", 10)).extracting(UserNameMatch::id).containsExactly(created, stored);
+    }
+}
@@ -0,0 +1,209 @@
+package clear.solutions.demo.outbox;
+
+import clear.solutions.demo.exception.DuplicateEmailException;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.response.UserChange;
+import clear.solutions.demo.service.UserService;
+import clear.solutions.demo.service.event.UserChangeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "user.outbox.poll-interval=1h",
+        "user.outbox.sink.queue.enabled=true",
+        "user.outbox.sink.file.enabled=true",
+        "user.outbox.sink.file.fsync=false"
+})
+class UserOutboxIntegrationTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @TempDir
+    private static Path directory;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserOutbox userOutbox;
+    @Autowired
+    private UserOutboxRelay userOutboxRelay;
+    @Autowired
+    private QueueUserChangeSink queueUserChangeSink;
+    @Autowired
+    private FileUserChangeSink fileUserChangeSink;
+
+    @DynamicPropertySource
+    static void changeFile(DynamicPropertyRegistry registry) {
+        registry.add("user.outbox.sink.file.path", () -> directory.resolve("changes.jsonl").toString());
+    }
+
+    @Test
+    void mutations_shouldBeRelayedInCommitOrderPerUser() throws InterruptedException {
+        User user = userService.createUser(request(email("ordered"), "1990-01-01"));
+        userService.updateUser(user.getId(), request(email("ordered"), "1991-01-01"));
+        userService.updateUserEmail(user.getId(), email("renamed"));
+        userService.deleteUserById(user.getId());
+
+        userOutboxRelay.relay();
+
+        List<UserChange> changes = receive(user.getId(), 4);
+        assertThat(changes).extracting(UserChange::type).containsExactly(
+                UserChangeType.CREATED, UserChangeType.UPDATED, UserChangeType.EMAIL_UPDATED, UserChangeType.DELETED);
+        assertThat(changes).extracting(UserChange::offset).isSorted().doesNotHaveDuplicates();
+        assertThat(userOutboxRelay.deliveredOffset()).isGreaterThanOrEqualTo(changes.get(3).offset());
+    }
+
+    @Test
+    void rolledBackMutation_shouldNotBeRecorded() {
+        User first = userService.createUser(request(email("first"), "1990-01-01"));
+        User second = userService.createUser(request(email("second"), "1990-01-01"));
+
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.updateUser(second.getId(), request(email("first"), "1990-01-01")));
+        userOutboxRelay.relay();
+
+        assertThat(userOutbox.findAfter(0, Integer.MAX_VALUE))
+                .filteredOn(change -> change.userId().equals(second.getId()) || change.userId().equals(first.getId()))
+                .extracting(UserChange::type)
+                .containsOnly(UserChangeType.CREATED)
+                .hasSize(2);
+    }
+
+    @Test
+    void findAfter_shouldResumeFromOffset() {
+        User first = userService.createUser(request(email("resume1"), "1990-01-01"));
+        User second = userService.createUser(request(email("resume2"), "1990-01-01"));
+        userOutboxRelay.relay();
+        long firstOffset = userOutbox.findAfter(0, Integer.MAX_VALUE).stream()
+                .filter(change -> change.userId().equals(first.getId()))
+                .findFirst()
+                .orElseThrow()
+                .offset();
+
+        List<UserChange> resumed = userOutbox.findAfter(firstOffset, Integer.MAX_VALUE);
+
+        assertThat(resumed).extracting(UserChange::userId)
+                .doesNotContain(first.getId())
+                .contains(second.getId());
+        assertThat(resumed).allSatisfy(change -> assertThat(change.offset()).isGreaterThan(firstOffset));
+    }
+
+    @Test
+    void importUsers_shouldRecordChangesInTheChunkTransaction() {
+        List<UserModificationRequest> requests = List.of(
+                request(email("import1"), "1990-01-01"),
+                request(email("import2"), "1990-01-01"),
+                request(email("import1"), "1990-01-01"));
+
+        userService.importUsers(requests.iterator());
+        userOutboxRelay.relay();
+
+        UUID first = userService.findByEmail(email("import1")).id();
+        UUID second = userService.findByEmail(email("import2")).id();
+        assertThat(userOutbox.findAfter(0, Integer.MAX_VALUE))
+                .filteredOn(change -> change.userId().equals(first) || change.userId().equals(second))
+                .extracting(UserChange::type)
+                .containsExactly(UserChangeType.CREATED, UserChangeType.CREATED);
+    }
+
+    @Test
+    void fileSink_shouldAppendChanges_AndResumeAfterLastWrittenOffset() throws IOException {
+        User user = userService.createUser(request(email("file"), "1990-01-01"));
+
+        userOutboxRelay.relay();
+
+        List<String> lines = Files.readAllLines(directory.resolve("changes.jsonl"));
+        assertThat(lines).anySatisfy(line -> assertThat(line).contains(user.getId().toString(), "\"CREATED\""));
+        assertThat(fileUserChangeSink.resumeAfter(Long.MAX_VALUE)).isEqualTo(userOutboxRelay.deliveredOffset());
+    }
+
+    @Test
+    void relay_shouldKeepDeliveringToOtherSinks_WhenOneSinkFails() {
+        User user = userService.createUser(request(email("stalled"), "1990-01-01"));
+        List<UserChange> received = Collections.synchronizedList(new ArrayList<>());
+        UserChangeSink failing = changes -> {
+            throw new IllegalStateException("sink is full");
+        };
+        UserOutboxRelay relay = new UserOutboxRelay(userOutbox, List.of(failing, received::addAll), Clock.systemUTC(),
+                500, Duration.ofHours(1), Duration.ofDays(7), Duration.ofHours(1));
+
+        relay.relay();
+
+        assertThat(received).extracting(UserChange::userId).contains(user.getId());
+        assertThat(relay.deliveredOffset()).isZero();
+    }
+
+    @Test
+    void purge_shouldKeepOffsetsIncreasing_WhenEveryRelayedChangeHasExpired() {
+        User before = userService.createUser(request(email("before-purge"), "1990-01-01"));
+        List<UserChange> received = Collections.synchronizedList(new ArrayList<>());
+        UserOutboxRelay relay = new UserOutboxRelay(userOutbox, List.of(received::addAll),
+                Clock.offset(Clock.systemUTC(), Duration.ofDays(30)), 500, Duration.ofHours(1), Duration.ofDays(7), Duration.ofHours(1));
+        relay.relay();
+        long purgedOffset = relay.deliveredOffset();
+
+        relay.purge();
+
+        assertThat(userOutbox.findAfter(0, Integer.MAX_VALUE)).extracting(UserChange::offset).containsExactly(purgedOffset);
+        User after = userService.createUser(request(email("after-purge"), "1990-01-01"));
+        relay.relay();
+
+        assertThat(received).extracting(UserChange::userId).contains(before.getId(), after.getId());
+        assertThat(received).filteredOn(change -> change.userId().equals(after.getId()))
+                .extracting(UserChange::offset)
+                .allSatisfy(offset -> assertThat(offset).isGreaterThan(purgedOffset));
+    }
+
+    @Test
+    void queueSink_shouldGiveUpOnFullQueue_AndResumeWithoutDuplicates() throws InterruptedException {
+        QueueUserChangeSink sink = new QueueUserChangeSink(1, Duration.ofMillis(10));
+        List<UserChange> changes = List.of(
+                new UserChange(1, UserChangeType.CREATED, UUID.randomUUID(), Instant.now()),
+                new UserChange(2, UserChangeType.CREATED, UUID.randomUUID(), Instant.now()));
+
+        assertThrows(IllegalStateException.class, () -> sink.publish(changes));
+        assertThat(sink.poll(Duration.ZERO)).isEqualTo(changes.get(0));
+        sink.publish(changes);
+
+        assertThat(sink.poll(Duration.ZERO)).isEqualTo(changes.get(1));
+        assertThat(sink.poll(Duration.ZERO)).isNull();
+    }
+
+    private List<UserChange> receive(UUID userId, int expected) throws InterruptedException {
+        List<UserChange> changes = new ArrayList<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (changes.size() < expected && System.nanoTime() < deadline) {
+            UserChange change = queueUserChangeSink.poll(Duration.ofMillis(100));
+            if (change != null && change.userId().equals(userId)) {
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    private UserModificationRequest request(String email, String birthDate) {
+        return new UserModificationRequest(email, "first", "last", LocalDate.parse(birthDate), null, null);
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+}
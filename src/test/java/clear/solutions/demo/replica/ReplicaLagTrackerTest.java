@@ -0,0 +1,82 @@
+package clear.solutions.demo.replica;
+
+import clear.solutions.demo.service.event.UserChangeType;
+import clear.solutions.demo.service.event.UserChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaLagTrackerTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final ReplicaLagTracker tracker = new ReplicaLagTracker(clock, Duration.ofSeconds(5));
+
+    @Test
+    void isReplicaFresh_shouldRejectOnlyUsersAndRangesTouchedByPendingChanges() {
+        UUID userId = UUID.randomUUID();
+
+        tracker.onUserChanged(new UserChangedEvent(UserChangeType.UPDATED, userId,
+                LocalDate.of(1990, 5, 1), LocalDate.of(1980, 5, 1)));
+
+        assertThat(tracker.isReplicaFresh(userId)).isFalse();
+        assertThat(tracker.isReplicaFresh(UUID.randomUUID())).isTrue();
+        assertThat(tracker.isReplicaFresh(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))).isFalse();
+        assertThat(tracker.isReplicaFresh(LocalDate.of(1980, 5, 1), LocalDate.of(1980, 5, 1))).isFalse();
+        assertThat(tracker.isReplicaFresh(LocalDate.of(1985, 1, 1), LocalDate.of(1985, 12, 31))).isTrue();
+        assertThat(tracker.isReplicaFresh(null, LocalDate.of(1979, 12, 31))).isTrue();
+
+        tracker.acknowledge(tracker.pendingChanges().iterator().next().position());
+
+        assertThat(tracker.isReplicaFresh(userId)).isTrue();
+        assertThat(tracker.isReplicaFresh(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31))).isTrue();
+    }
+
+    @Test
+    void isReplicaFresh_shouldTreatEmailChangesAsTouchingEveryRange() {
+        tracker.onUserChanged(new UserChangedEvent(UserChangeType.EMAIL_UPDATED, UUID.randomUUID(), null, null));
+
+        assertThat(tracker.isReplicaFresh(LocalDate.of(1985, 1, 1), LocalDate.of(1985, 12, 31))).isFalse();
+    }
+
+    @Test
+    void isReplicaFresh_shouldFallBackToPrimaryForEverything_WhenReplicaLagsTooFarBehind() {
+        tracker.onUserChanged(new UserChangedEvent(UserChangeType.CREATED, UUID.randomUUID(), LocalDate.of(1990, 5, 1), null));
+        assertThat(tracker.isLagging()).isFalse();
+
+        clock.instant = clock.instant.plusSeconds(6);
+
+        assertThat(tracker.isLagging()).isTrue();
+        assertThat(tracker.isReplicaFresh(UUID.randomUUID())).isFalse();
+        assertThat(tracker.isReplicaFresh(LocalDate.of(1985, 1, 1), LocalDate.of(1985, 12, 31))).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package clear.solutions.demo.replica;
+
+import clear.solutions.demo.aggregate.BirthDateRangeCounter;
+import clear.solutions.demo.cache.BirthDateRange;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.response.BirthDateRangeCount;
+import clear.solutions.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "user.datasource.replica.enabled=true",
+        "user.datasource.replica.max-lag=1h",
+        "user.datasource.replica.stand-in.lag=1h",
+        "user.counts.parallel.split-days=7"})
+class ReplicaRoutingIntegrationTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private H2ReplicationStandIn replicationStandIn;
+    @Autowired
+    private BirthDateRangeCounter birthDateRangeCounter;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Test
+    void findByBirthDateRange_shouldReadFromReplica_WhenNoPendingChangeTouchesRange() {
+        UUID replicaOnlyId = UUID.randomUUID();
+        new JdbcTemplate(replicaDataSource).update("""
+                        INSERT INTO "user" ("id", "email", "first_name", "last_name", "birth_date", "version")
+                        VALUES (?, ?, 'r', 'r', DATE '1931-02-03', 0)""",
+                replicaOnlyId, email("replica"));
+
+        List<UserView> users = userService.findByBirthDateRange(LocalDate.of(1931, 2, 1), LocalDate.of(1931, 2, 28));
+
+        assertThat(users).extracting(UserView::id).containsExactly(replicaOnlyId);
+        assertThat(new JdbcTemplate(primaryDataSource)
+                .queryForObject("SELECT COUNT(*) FROM \"user\" WHERE \"id\" = ?", Long.class, replicaOnlyId))
+                .isZero();
+    }
+
+    @Test
+    void parallelCount_shouldReadFromSameDataSourceAsCallingTransaction() {
+        for (int month = 1; month <= 12; month++) {
+            new JdbcTemplate(replicaDataSource).update("""
+                            INSERT INTO "user" ("id", "email", "first_name", "last_name", "birth_date", "version")
+                            VALUES (?, ?, 'r', 'r', ?, 0)""",
+                    UUID.randomUUID(), email("replica-count-" + month), LocalDate.of(1934, month, 3));
+        }
+        List<BirthDateRange> ranges = List.of(new BirthDateRange(LocalDate.of(1934, 1, 1), LocalDate.of(1934, 12, 31)));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<BirthDateRangeCount> sequential;
+        List<BirthDateRangeCount> parallel;
+        Boolean previous = ReplicaRoutingDataSource.allowReplica(true);
+        try {
+            sequential = readOnly.execute(status -> birthDateRangeCounter.count(ranges, false));
+            parallel = readOnly.execute(status -> birthDateRangeCounter.count(ranges, true));
+        } finally {
+            ReplicaRoutingDataSource.allowReplica(previous);
+        }
+
+        assertThat(sequential).extracting(BirthDateRangeCount::count).containsExactly(12L);
+        assertThat(parallel).isEqualTo(sequential);
+        assertThat(birthDateRangeCounter.count(ranges, true))
+                .extracting(BirthDateRangeCount::count).containsExactly(0L);
+    }
+
+    @Test
+    void reads_shouldFallBackToPrimary_UntilReplicaHasAppliedTheWrite() {
+        User user = userService.createUser(new UserModificationRequest(email("e"), "i", "z",
+                LocalDate.of(1932, 5, 5), null, null));
+
+        assertThat(userService.findById(user.getId()).email()).isEqualTo(email("e"));
+        assertThat(userService.findPageByBirthDateRange(LocalDate.of(1932, 5, 1), LocalDate.of(1932, 5, 31), null, 10)
+                .users()).extracting(UserView::id).containsExactly(user.getId());
+
+        replicationStandIn.catchUp();
+        new JdbcTemplate(replicaDataSource)
+                .update("UPDATE \"user\" SET \"email\" = ? WHERE \"id\" = ?", email("replica"), user.getId());
+
+        assertThat(userService.findPageByBirthDateRange(LocalDate.of(1932, 5, 1), LocalDate.of(1932, 5, 31), null, 10)
+                .users()).extracting(UserView::email).containsExactly(email("replica"));
+    }
+
+    @Test
+    void catchUp_shouldReplicateUpdatesAndDeletes() {
+        User user = userService.createUser(new UserModificationRequest(email("e"), "i", "z",
+                LocalDate.of(1933, 5, 5), null, null));
+        userService.updateUserEmail(user.getId(), email("updated"));
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+
+        replicationStandIn.catchUp();
+
+        assertThat(replica.queryForObject("SELECT \"email\" FROM \"user\" WHERE \"id\" = ?", String.class, user.getId()))
+                .isEqualTo(email("updated"));
+
+        userService.deleteUserById(user.getId());
+        replicationStandIn.catchUp();
+
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM \"user\" WHERE \"id\" = ?", Long.class, user.getId()))
+                .isZero();
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
@@ -0,0 +1,118 @@
+package clear.solutions.demo.request.validation.validator;
+
+import jakarta.validation.ConstraintValidatorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BirthDateValidatorTest {
+    private static final int AGE_RESTRICTION = 18;
+
+    private MutableClock clock;
+    private BirthDateValidator validator;
+    private ConstraintValidatorContext context;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-02-29T10:00:00Z"));
+        validator = new BirthDateValidator(AGE_RESTRICTION, clock);
+        context = mock(ConstraintValidatorContext.class, RETURNS_DEEP_STUBS);
+        when(context.getDefaultConstraintMessageTemplate()).thenReturn("Age must be bigger than %s");
+    }
+
+    @Test
+    void isValid_shouldMatchPlusYearsRule_ForEveryDayAroundLeapYears() {
+        for (LocalDate today = LocalDate.of(2023, 12, 1); today.isBefore(LocalDate.of(2025, 4, 1)); today = today.plusDays(1)) {
+            clock.set(today.atTime(12, 0).toInstant(ZoneOffset.UTC));
+            for (LocalDate birthDate = today.minusYears(AGE_RESTRICTION).minusDays(3);
+                 birthDate.isBefore(today.minusYears(AGE_RESTRICTION).plusDays(3));
+                 birthDate = birthDate.plusDays(1)) {
+                assertThat(validator.isValid(birthDate, context))
+                        .as("birth date %s on %s", birthDate, today)
+                        .isEqualTo(birthDate.plusYears(AGE_RESTRICTION).isBefore(today));
+            }
+        }
+    }
+
+    @Test
+    void isValid_shouldRollCutoffOver_WhenClockPassesMidnight() {
+        LocalDate birthDate = LocalDate.of(2006, 2, 28);
+        clock.set(Instant.parse("2024-02-28T23:59:59Z"));
+        assertThat(validator.isValid(birthDate, context)).isFalse();
+
+        clock.set(Instant.parse("2024-02-29T00:00:00Z"));
+
+        assertThat(validator.isValid(birthDate, context)).isTrue();
+    }
+
+    @Test
+    void isValid_shouldFormatMessage_WhenBirthDateIsInvalid() {
+        validator.isValid(LocalDate.of(2020, 1, 1), context);
+
+        verify(context).buildConstraintViolationWithTemplate("Age must be bigger than 18");
+    }
+
+    @Test
+    void isValid_shouldNotAllocate_WhenBirthDateIsValid() {
+        validator = new BirthDateValidator(AGE_RESTRICTION, Clock.systemDefaultZone());
+        LocalDate birthDate = LocalDate.of(2003, 7, 28);
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        boolean valid = true;
+        for (int i = 0; i < 100_000; i++) {
+            valid &= validator.isValid(birthDate, null);
+        }
+
+        int calls = 1_000_000;
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < calls; i++) {
+            valid &= validator.isValid(birthDate, null);
+        }
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertThat(valid).isTrue();
+        assertThat(allocatedBytes)
+                .as("less than one byte per call means no call allocated an object")
+                .isLessThan(calls);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package clear.solutions.demo.service;
+
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.service.imp.MemoryIndexUserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "user.range.mode=memory-index")
+class MemoryIndexUserServiceTest {
+    private static final LocalDate FROM_DATE = LocalDate.of(2001, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(2001, 12, 31);
+
+    private final String emailSuffix = UUID.randomUUID().toString();
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void findByBirthDateRange_shouldFollowWrites_WhenMemoryIndexModeIsEnabled() {
+        assertThat(userService).isInstanceOf(MemoryIndexUserService.class);
+        User first = userService.createUser(request(LocalDate.of(2001, 5, 1)));
+        User second = userService.createUser(request(LocalDate.of(2001, 2, 1)));
+
+        assertThat(userService.findByBirthDateRange(FROM_DATE, TO_DATE))
+                .extracting(UserView::id)
+                .containsExactly(second.getId(), first.getId());
+
+        userService.updateUser(second.getId(), request(LocalDate.of(1999, 2, 1)));
+        userService.deleteUserById(first.getId());
+
+        assertThat(userService.findByBirthDateRange(FROM_DATE, TO_DATE)).isEmpty();
+    }
+
+    private UserModificationRequest request(LocalDate birthDate) {
+        return new UserModificationRequest(email(birthDate.toString()), "i", "z", birthDate, null, null);
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
@@ -0,0 +1,47 @@
+package clear.solutions.demo.service;
+
+import clear.solutions.demo.index.NameIndex;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.response.UserNameMatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "user.name-index.enabled=false")
+class NameSearchDatabaseFallbackTest {
+    private final String suffix = UUID.randomUUID().toString().replace("-", "");
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void searchByNamePrefix_shouldQueryDatabase_WhenNameIndexIsDisabled() {
+        assertThat(applicationContext.getBeanProvider(NameIndex.class).getIfAvailable()).isNull();
+        User second = userService.createUser(request("Zed" + suffix, "Adams"));
+        User first = userService.createUser(request("Anna", "Zed" + suffix + "_ski"));
+        userService.createUser(request("Zed" + suffix.substring(0, 8) + "x", "Other"));
+
+        assertThat(userService.searchByNamePrefix("zed" + suffix, 10))
+                .extracting(UserNameMatch::id)
+                .containsExactly(first.getId(), second.getId());
+        assertThat(userService.searchByNamePrefix("ANNA ZED" + suffix + "_", 10))
+                .singleElement()
+                .isEqualTo(new UserNameMatch(first.getId(), "Anna", "Zed" + suffix + "_ski"));
+        assertThat(userService.searchByNamePrefix("zed" + suffix.substring(0, 8) + "%", 10)).isEmpty();
+        assertThat(userService.searchByNamePrefix("zed" + suffix, 1)).hasSize(1);
+    }
+
+    private UserModificationRequest request(String firstName, String lastName) {
+        return new UserModificationRequest(firstName.toLowerCase() + "." + suffix + "@gmail.com", firstName, lastName,
+                LocalDate.of(1990, 1, 1), null, null);
+    }
+}
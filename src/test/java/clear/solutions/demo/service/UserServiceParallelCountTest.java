@@ -0,0 +1,50 @@
+package clear.solutions.demo.service;
+
+import clear.solutions.demo.cache.BirthDateRange;
+import clear.solutions.demo.outbox.UserOutboxRelay;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.response.BirthDateRangeCount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "user.counts.parallel.split-days=7",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+class UserServiceParallelCountTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private UserService userService;
+    @MockBean
+    private UserOutboxRelay userOutboxRelay;
+
+    @Test
+    void countByBirthDateRanges_shouldNotHoldConnection_WhileParallelLeavesRun() {
+        for (int month = 1; month <= 12; month++) {
+            userService.createUser(new UserModificationRequest(email("user" + month), "i", "z",
+                    LocalDate.of(1941, month, 9), null, null));
+        }
+        List<BirthDateRange> ranges = List.of(
+                new BirthDateRange(LocalDate.of(1941, 1, 1), LocalDate.of(1941, 6, 30)),
+                new BirthDateRange(LocalDate.of(1941, 1, 1), LocalDate.of(1941, 12, 31)));
+
+        List<BirthDateRangeCount> parallel = userService.countByBirthDateRanges(ranges, false, true);
+
+        assertThat(parallel).extracting(BirthDateRangeCount::count).containsExactly(6L, 12L);
+        assertThat(parallel).isEqualTo(userService.countByBirthDateRanges(ranges, false, false));
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
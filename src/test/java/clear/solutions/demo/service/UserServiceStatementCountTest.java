@@ -0,0 +1,117 @@
+package clear.solutions.demo.service;
+
+import clear.solutions.demo.exception.EntityIdNotFoundException;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.request.UserPatchRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "clear.solutions.demo.service.UserServiceStatementCountTest$RecordingStatementInspector"
+})
+class UserServiceStatementCountTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserModificationRequest userModificationRequest;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userModificationRequest = new UserModificationRequest(email("e"), "i",
+                "z", LocalDate.of(2003, 7, 28), null, null);
+    }
+
+    @Test
+    void updateUser_shouldExecuteSingleStatement() {
+        User user = userService.createUser(userModificationRequest);
+        statistics.clear();
+
+        userService.updateUser(user.getId(), userModificationRequest);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void patchUser_shouldExecuteSingleStatementTouchingOnlyPatchedColumns() {
+        User user = userService.createUser(userModificationRequest);
+        UserModificationRequest values = new UserModificationRequest();
+        values.setFirstName("patched");
+        statistics.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        userService.patchUser(user.getId(), new UserPatchRequest(values, Set.of("firstName")), null);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(RecordingStatementInspector.STATEMENTS).singleElement()
+                .satisfies(sql -> assertThat(sql.substring(sql.indexOf(" SET "), sql.indexOf(" WHERE ")))
+                        .contains("\"first_name\"", "\"version\"")
+                        .doesNotContain("\"birth_date\"", "\"email\"", "\"last_name\""));
+    }
+
+    @Test
+    void updateUserEmail_shouldExecuteSingleStatement() {
+        User user = userService.createUser(userModificationRequest);
+        statistics.clear();
+
+        userService.updateUserEmail(user.getId(), email("new"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteUserById_shouldExecuteSingleStatement() {
+        User user = userService.createUser(userModificationRequest);
+        statistics.clear();
+
+        userService.deleteUserById(user.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteUserById_shouldExecuteSingleStatement_WhenUserIdDoesNotExist() {
+        statistics.clear();
+
+        assertThrows(EntityIdNotFoundException.class, () -> userService.deleteUserById(UUID.randomUUID()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
@@ -11,12 +11,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,88 +34,86 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userFromDb = new User(UUID.randomUUID(), "e@gmail.com",
-                "i", "z", LocalDate.of(2003, 7, 28), null, null);
+        userFromDb = new User(UUID.randomUUID(), "e@gmail.com", "e@gmail.com",
+                "i", "z", LocalDate.of(2003, 7, 28), null, null, 0);
         userModificationRequest = new UserModificationRequest("e@gmail.com", "i",
                 "z", LocalDate.of(2003, 7, 28), null, null);
     }
 
     @Test
     void createUser_shouldCreateUser_WhenUserDataIsCorrect() {
-        when(userRepository.save(any(User.class))).thenReturn(userFromDb);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(userFromDb);
 
         userService.createUser(userModificationRequest);
 
         assertAll(
-                () -> verify(userRepository).save(any(User.class))
+                () -> verify(userRepository).saveAndFlush(any(User.class))
         );
     }
 
     @Test
     void updateUser_shouldUpdateUser_WhenUserDataIsCorrect() {
-        when(userRepository.save(any(User.class))).thenReturn(userFromDb);
-        when(userRepository.findById(userFromDb.getId())).thenReturn(Optional.of(userFromDb));
+        when(userRepository.updateById(eq(userFromDb.getId()), any(User.class))).thenReturn(List.of(userFromDb.getBirthDate()));
 
         userService.updateUser(userFromDb.getId(), userModificationRequest);
 
         assertAll(
-                () -> verify(userRepository).save(any(User.class)),
-                () -> verify(userRepository).findById(any(UUID.class))
+                () -> verify(userRepository).updateById(eq(userFromDb.getId()), any(User.class)),
+                () -> verify(userRepository, never()).findById(any(UUID.class))
         );
     }
 
     @Test
     void updateUser_shouldThrowException_WhenUserIdDoesNotExist() {
-        when(userRepository.findById(userFromDb.getId())).thenReturn(Optional.empty());
+        when(userRepository.updateById(eq(userFromDb.getId()), any(User.class))).thenReturn(List.of());
 
         assertAll(
                 () -> assertThrows(EntityIdNotFoundException.class, () -> userService.updateUser(userFromDb.getId(), userModificationRequest)),
-                () -> verify(userRepository).findById(userFromDb.getId())
+                () -> verify(userRepository).updateById(eq(userFromDb.getId()), any(User.class))
         );
     }
 
     @Test
     void updateUserEmail_shouldUpdateUserEmail_WhenUserDataIsCorrect() {
-        when(userRepository.save(any(User.class))).thenReturn(userFromDb);
-        when(userRepository.findById(userFromDb.getId())).thenReturn(Optional.of(userFromDb));
+        when(userRepository.updateEmailById(userFromDb.getId(), "e@e.e")).thenReturn(1);
 
         userService.updateUserEmail(userFromDb.getId(), "e@e.e");
 
         assertAll(
-                () -> verify(userRepository).save(any(User.class)),
-                () -> verify(userRepository).findById(any(UUID.class))
+                () -> verify(userRepository).updateEmailById(userFromDb.getId(), "e@e.e"),
+                () -> verify(userRepository, never()).findById(any(UUID.class))
         );
     }
 
     @Test
     void updateUserEmail_shouldThrowException_WhenUserIdDoesNotExist() {
-        when(userRepository.findById(userFromDb.getId())).thenReturn(Optional.empty());
+        when(userRepository.updateEmailById(userFromDb.getId(), "e@e.e")).thenReturn(0);
 
         assertAll(
                 () -> assertThrows(EntityIdNotFoundException.class, () -> userService.updateUserEmail(userFromDb.getId(), "e@e.e")),
-                () -> verify(userRepository).findById(userFromDb.getId())
+                () -> verify(userRepository).updateEmailById(userFromDb.getId(), "e@e.e")
         );
     }
 
     @Test
     void deleteUser_shouldDeleteUser_WhenUserIdExist() {
-        when(userRepository.findById(userFromDb.getId())).thenReturn(Optional.of(userFromDb));
+        when(userRepository.removeById(userFromDb.getId())).thenReturn(List.of(userFromDb.getBirthDate()));
 
         userService.deleteUserById(userFromDb.getId());
 
         assertAll(
-                () -> verify(userRepository).deleteById(any(UUID.class)),
-                () -> verify(userRepository).findById(any(UUID.class))
+                () -> verify(userRepository).removeById(userFromDb.getId()),
+                () -> verify(userRepository, never()).findById(any(UUID.class))
         );
     }
 
     @Test
     void deleteUser_shouldThrowException_WhenUserIdDoesNotExist() {
-        when(userRepository.findById(userFromDb.getId())).thenReturn(Optional.empty());
+        when(userRepository.removeById(userFromDb.getId())).thenReturn(List.of());
 
         assertAll(
                 () -> assertThrows(EntityIdNotFoundException.class, () -> userService.deleteUserById(userFromDb.getId())),
-                () -> verify(userRepository).findById(userFromDb.getId())
+                () -> verify(userRepository).removeById(userFromDb.getId())
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package clear.solutions.demo.service;
+
+import clear.solutions.demo.exception.EntityIdNotFoundException;
+import clear.solutions.demo.exception.PreconditionFailedException;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.model.UserView;
+import clear.solutions.demo.outbox.UserOutboxRelay;
+import clear.solutions.demo.request.UserEmailUpdate;
+import clear.solutions.demo.request.UserModificationRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserServiceTransactionTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockBean
+    private UserOutboxRelay userOutboxRelay;
+
+    private Statistics statistics;
+    private UserModificationRequest userModificationRequest;
+    private long connectionAcquisitions;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userModificationRequest = new UserModificationRequest(email("e"), "i",
+                "z", LocalDate.of(2003, 7, 28), null, null);
+    }
+
+    @Test
+    void updateUserEmail_shouldAcquireOneConnectionAndCommitOnce() {
+        User user = userService.createUser(userModificationRequest);
+        resetCounters();
+
+        userService.updateUserEmail(user.getId(), email("new"));
+
+        assertSingleTransaction();
+    }
+
+    @Test
+    void updateUser_shouldRollBackOnce_WhenVersionDoesNotMatch() {
+        User user = userService.createUser(userModificationRequest);
+        resetCounters();
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.updateUser(user.getId(), userModificationRequest, user.getVersion() + 1));
+
+        assertThat(acquiredConnections()).isEqualTo(1);
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+        assertThat(statistics.getSuccessfulTransactionCount()).isZero();
+    }
+
+    @Test
+    void deleteUserById_shouldAcquireOneConnectionAndCommitOnce() {
+        User user = userService.createUser(userModificationRequest);
+        resetCounters();
+
+        userService.deleteUserById(user.getId());
+
+        assertSingleTransaction();
+    }
+
+    @Test
+    void findById_shouldAcquireOneConnection() {
+        User user = userService.createUser(userModificationRequest);
+        resetCounters();
+
+        UserView found = userService.findById(user.getId());
+
+        assertThat(found.id()).isEqualTo(user.getId());
+        assertSingleTransaction();
+    }
+
+    @Test
+    void updateUserEmails_shouldUpdateAllUsersInOneTransaction() {
+        List<UserEmailUpdate> updates = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            User user = userService.createUser(new UserModificationRequest(email("user" + i), "i", "z",
+                    LocalDate.of(2003, 7, 28), null, null));
+            updates.add(new UserEmailUpdate(user.getId(), email("u" + i)));
+        }
+        resetCounters();
+
+        userService.updateUserEmails(updates);
+
+        assertSingleTransaction();
+        assertThat(userService.findById(updates.get(499).getUserId()).email()).isEqualTo(email("u499"));
+    }
+
+    @Test
+    void updateUserEmails_shouldRollBackAllUpdates_WhenAnyUserIdDoesNotExist() {
+        User user = userService.createUser(userModificationRequest);
+        resetCounters();
+
+        assertThrows(EntityIdNotFoundException.class, () -> userService.updateUserEmails(List.of(
+                new UserEmailUpdate(user.getId(), email("new")),
+                new UserEmailUpdate(UUID.randomUUID(), email("missing")))));
+
+        assertThat(acquiredConnections()).isEqualTo(1);
+        assertThat(statistics.getSuccessfulTransactionCount()).isZero();
+        assertThat(userService.findById(user.getId()).email()).isEqualTo(email("e"));
+    }
+
+    private void resetCounters() {
+        statistics.clear();
+        connectionAcquisitions = totalAcquisitions();
+    }
+
+    private void assertSingleTransaction() {
+        assertThat(acquiredConnections()).isEqualTo(1);
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+        assertThat(statistics.getSuccessfulTransactionCount()).isEqualTo(1);
+    }
+
+    private long acquiredConnections() {
+        return totalAcquisitions() - connectionAcquisitions;
+    }
+
+    private long totalAcquisitions() {
+        return meterRegistry.get("hikaricp.connections.acquire").timer().count();
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
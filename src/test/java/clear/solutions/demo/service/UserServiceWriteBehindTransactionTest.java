@@ -0,0 +1,123 @@
+package clear.solutions.demo.service;
+
+import clear.solutions.demo.export.CsvUserRowWriter;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.outbox.UserOutboxRelay;
+import clear.solutions.demo.request.UserEmailUpdate;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.request.UserPatchRequest;
+import clear.solutions.demo.writebehind.EmailWriteBehindBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "user.email.write-behind.enabled=true",
+        "user.email.write-behind.flush-size=1000000",
+        "user.email.write-behind.flush-interval=1h",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+class UserServiceWriteBehindTransactionTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @TempDir
+    private static Path directory;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EmailWriteBehindBuffer emailWriteBehindBuffer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private UserOutboxRelay userOutboxRelay;
+
+    private User user;
+
+    @DynamicPropertySource
+    static void logFile(DynamicPropertyRegistry registry) {
+        registry.add("user.email.write-behind.log-file", () -> directory.resolve("emails.log").toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        user = userService.createUser(new UserModificationRequest(email("e"), "i", "z",
+                LocalDate.of(1986, 5, 14), null, null));
+        userService.updateUserEmail(user.getId(), email("pending"));
+    }
+
+    @Test
+    void updateUser_shouldFlushPendingEmail_WithOnlyOneConnectionInPool() {
+        userService.updateUser(user.getId(), new UserModificationRequest(email("updated"), "i", "z",
+                LocalDate.of(1986, 5, 14), null, null), 1L);
+
+        assertThat(emailWriteBehindBuffer.isPending(user.getId())).isFalse();
+        assertThat(databaseEmail()).isEqualTo(email("updated"));
+    }
+
+    @Test
+    void patchUser_shouldFlushPendingEmail_WithOnlyOneConnectionInPool() {
+        UserModificationRequest values = new UserModificationRequest();
+        values.setFirstName("patched");
+
+        userService.patchUser(user.getId(), new UserPatchRequest(values, Set.of("firstName")), null);
+
+        assertThat(databaseEmail()).isEqualTo(email("pending"));
+    }
+
+    @Test
+    void updateUserEmail_shouldFlushPendingEmail_WhenVersionIsExpected() {
+        userService.updateUserEmail(user.getId(), email("versioned"), 1L);
+
+        assertThat(databaseEmail()).isEqualTo(email("versioned"));
+    }
+
+    @Test
+    void updateUserEmails_shouldFlushPendingEmail_WithOnlyOneConnectionInPool() {
+        userService.updateUserEmails(List.of(new UserEmailUpdate(user.getId(), email("batch"))));
+
+        assertThat(databaseEmail()).isEqualTo(email("batch"));
+    }
+
+    @Test
+    void findByEmail_shouldFlushPendingEmail_WithOnlyOneConnectionInPool() {
+        assertThat(userService.findByEmail(email("pending")).id()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void exportByBirthDateRange_shouldFlushPendingEmail_WithOnlyOneConnectionInPool() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvUserRowWriter writer = new CsvUserRowWriter(out);
+
+        userService.exportByBirthDateRange(LocalDate.of(1986, 5, 14), LocalDate.of(1986, 5, 14), writer);
+        writer.finish();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains(email("pending"));
+    }
+
+    private String databaseEmail() {
+        return jdbcTemplate.queryForObject("SELECT \"email\" FROM \"user\" WHERE \"id\" = ?", String.class, user.getId());
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}
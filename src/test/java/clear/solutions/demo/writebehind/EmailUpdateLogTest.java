@@ -0,0 +1,140 @@
+package clear.solutions.demo.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailUpdateLogTest {
+    @TempDir
+    private Path directory;
+
+    @Test
+    void recover_shouldReturnLastEmailPerUser_WhenLogHasSeveralUpdates() throws IOException {
+        Path file = directory.resolve("emails.log");
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            log.recover();
+            log.append(first, "a@gmail.com", 1);
+            log.append(second, "b@gmail.com", 1);
+            log.append(first, "c@gmail.com", 2);
+        }
+
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            assertThat(log.recover()).containsExactly(
+                    Map.entry(second, new EmailUpdateLog.Entry("b@gmail.com", 1)),
+                    Map.entry(first, new EmailUpdateLog.Entry("c@gmail.com", 2)));
+        }
+    }
+
+    @Test
+    void recover_shouldDropUser_WhenTombstoneFollowsUpdate() throws IOException {
+        Path file = directory.resolve("emails.log");
+        UUID userId = UUID.randomUUID();
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            log.recover();
+            log.append(userId, "a@gmail.com", 1);
+            log.rotate();
+            log.appendTombstone(userId);
+        }
+
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            assertThat(log.recover()).isEmpty();
+        }
+    }
+
+    @Test
+    void recover_shouldReplayUnfinishedFlush_WhenFlushingFileIsLeftBehind() throws IOException {
+        Path file = directory.resolve("emails.log");
+        UUID flushed = UUID.randomUUID();
+        UUID pending = UUID.randomUUID();
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            log.recover();
+            log.append(flushed, "a@gmail.com", 1);
+            log.rotate();
+            log.append(pending, "b@gmail.com", 1);
+        }
+
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            assertThat(log.recover()).containsOnlyKeys(flushed, pending);
+        }
+        assertThat(directory.resolve("emails.log.flushing")).doesNotExist();
+    }
+
+    @Test
+    void recover_shouldIgnoreTornRecord_WhenLastWriteWasInterrupted() throws IOException {
+        Path file = directory.resolve("emails.log");
+        UUID userId = UUID.randomUUID();
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            log.recover();
+            log.append(userId, "a@gmail.com", 1);
+        }
+        Files.write(file, new byte[]{0, 0, 0, 11, 0, 0, 0, 1, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            assertThat(log.recover()).containsExactly(Map.entry(userId, new EmailUpdateLog.Entry("a@gmail.com", 1)));
+        }
+    }
+
+    @Test
+    void recover_shouldAddUpdateCounts_WhenUserIsInBothFlushingAndActiveFile() throws IOException {
+        Path file = directory.resolve("emails.log");
+        UUID userId = UUID.randomUUID();
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            log.recover();
+            log.append(userId, "a@gmail.com", 1);
+            log.append(userId, "b@gmail.com", 2);
+            log.rotate();
+            log.append(userId, "c@gmail.com", 1);
+        }
+
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            assertThat(log.recover()).containsExactly(Map.entry(userId, new EmailUpdateLog.Entry("c@gmail.com", 3)));
+        }
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            assertThat(log.recover()).containsExactly(Map.entry(userId, new EmailUpdateLog.Entry("c@gmail.com", 3)));
+        }
+    }
+
+    @Test
+    void append_shouldKeepEveryRecord_WhenConcurrentWritersShareSyncs() throws Exception {
+        Path file = directory.resolve("emails.log");
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            userIds.add(UUID.randomUUID());
+        }
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try (EmailUpdateLog log = new EmailUpdateLog(file, true)) {
+            log.recover();
+            List<Future<?>> appends = new ArrayList<>();
+            for (UUID userId : userIds) {
+                appends.add(writers.submit(() -> log.append(userId, userId + "@gmail.com", 1)));
+                if (appends.size() == 200) {
+                    log.rotate();
+                }
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        try (EmailUpdateLog log = new EmailUpdateLog(file, false)) {
+            assertThat(log.recover()).containsOnlyKeys(userIds);
+        }
+    }
+}
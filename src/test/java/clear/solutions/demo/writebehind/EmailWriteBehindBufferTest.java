@@ -0,0 +1,260 @@
+package clear.solutions.demo.writebehind;
+
+import clear.solutions.demo.cache.UserCache;
+import clear.solutions.demo.exception.DuplicateEmailException;
+import clear.solutions.demo.exception.EntityIdNotFoundException;
+import clear.solutions.demo.model.User;
+import clear.solutions.demo.request.UserModificationRequest;
+import clear.solutions.demo.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "user.email.write-behind.enabled=true",
+        "user.email.write-behind.flush-size=1000000",
+        "user.email.write-behind.flush-interval=1h"
+})
+class EmailWriteBehindBufferTest {
+    private final String emailSuffix = UUID.randomUUID().toString();
+    @TempDir
+    private static Path directory;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EmailWriteBehindBuffer emailWriteBehindBuffer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @DynamicPropertySource
+    static void logFile(DynamicPropertyRegistry registry) {
+        registry.add("user.email.write-behind.log-file", () -> directory.resolve("emails.log").toString());
+    }
+
+    @Test
+    void updateUserEmail_shouldBeVisibleBeforeFlush_AndWrittenOnFlush() {
+        User user = createUser(LocalDate.of(1985, 2, 1));
+
+        userService.updateUserEmail(user.getId(), email("first"));
+        userService.updateUserEmail(user.getId(), email("second"));
+
+        assertThat(userService.findById(user.getId()).email()).isEqualTo(email("second"));
+        assertThat(userService.findByBirthDateRange(LocalDate.of(1985, 2, 1), LocalDate.of(1985, 2, 1)))
+                .singleElement()
+                .satisfies(view -> assertThat(view.email()).isEqualTo(email("second")));
+        assertThat(databaseEmail(user.getId())).isEqualTo(email("email"));
+
+        emailWriteBehindBuffer.flush();
+
+        assertThat(databaseEmail(user.getId())).isEqualTo(email("second"));
+        assertThat(userService.findById(user.getId()).email()).isEqualTo(email("second"));
+    }
+
+    @Test
+    void flush_shouldPublishEmailChange_OnlyAfterBufferedEmailIsCommitted() {
+        User user = createUser(LocalDate.of(1985, 2, 2));
+
+        userService.updateUserEmail(user.getId(), email("buffered"));
+
+        assertThat(emailChangesRecorded(user.getId())).isZero();
+
+        emailWriteBehindBuffer.flush();
+
+        assertThat(emailChangesRecorded(user.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void updateUser_shouldNotBeOverwrittenByPendingEmail() {
+        User user = createUser(LocalDate.of(1985, 3, 1));
+        userService.updateUserEmail(user.getId(), email("pending"));
+
+        userService.updateUser(user.getId(), new UserModificationRequest(email("replaced"), "illya", "zuiew",
+                LocalDate.of(1985, 3, 1), null, null));
+        emailWriteBehindBuffer.flush();
+
+        assertThat(databaseEmail(user.getId())).isEqualTo(email("replaced"));
+    }
+
+    @Test
+    void findById_shouldReportVersionIncludingPendingUpdates() {
+        User user = createUser(LocalDate.of(1985, 5, 1));
+
+        userService.updateUserEmail(user.getId(), email("first"));
+        userService.updateUserEmail(user.getId(), email("second"));
+
+        assertThat(userService.findById(user.getId()).version()).isEqualTo(2);
+        emailWriteBehindBuffer.flush();
+        assertThat(userService.findById(user.getId()).version()).isEqualTo(2);
+    }
+
+    @Test
+    void updateUserEmail_shouldApplyConditionalUpdateAfterPendingEmails() {
+        User user = createUser(LocalDate.of(1985, 6, 1));
+        userService.updateUserEmail(user.getId(), email("pending"));
+
+        userService.updateUserEmail(user.getId(), email("conditional"), 1L);
+
+        assertThat(databaseEmail(user.getId())).isEqualTo(email("conditional"));
+        assertThat(userService.findById(user.getId()).version()).isEqualTo(2);
+    }
+
+    @Test
+    void updateUserEmail_shouldThrow_WhenUserDoesNotExist() {
+        UUID userId = UUID.randomUUID();
+
+        assertThrows(EntityIdNotFoundException.class, () -> userService.updateUserEmail(userId, email("e")));
+    }
+
+    @Test
+    void deleteUserById_shouldDiscardPendingEmail() {
+        User user = createUser(LocalDate.of(1985, 4, 1));
+        userService.updateUserEmail(user.getId(), email("pending"));
+
+        userService.deleteUserById(user.getId());
+
+        assertThat(emailWriteBehindBuffer.isPending(user.getId())).isFalse();
+    }
+
+    @Test
+    void deleteUserById_shouldKeepPendingEmail_WhenDeleteRollsBack() {
+        User user = createUser(LocalDate.of(1985, 4, 2));
+        userService.updateUserEmail(user.getId(), email("kept"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.deleteUserById(user.getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(emailWriteBehindBuffer.isPending(user.getId())).isTrue();
+        emailWriteBehindBuffer.flush();
+        assertThat(databaseEmail(user.getId())).isEqualTo(email("kept"));
+    }
+
+    @Test
+    void recovery_shouldBumpVersionByEveryCoalescedUpdate() throws IOException {
+        User user = createUser(LocalDate.of(1985, 4, 3));
+        Path logFile = directory.resolve("recovered.log");
+        try (EmailUpdateLog log = new EmailUpdateLog(logFile, false)) {
+            log.recover();
+            log.append(user.getId(), email("recovered"), 3);
+        }
+        EmailWriteBehindBuffer recovered = new EmailWriteBehindBuffer(jdbcTemplate, transactionTemplate, userCache,
+                eventPublisher, logFile, false, 1_000_000, Duration.ofHours(1), 1, meterRegistry);
+
+        recovered.afterSingletonsInstantiated();
+        recovered.destroy();
+
+        assertThat(databaseEmail(user.getId())).isEqualTo(email("recovered"));
+        assertThat(jdbcTemplate.queryForObject("SELECT \"version\" FROM \"user\" WHERE \"id\" = ?", Long.class, user.getId()))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void put_shouldReleaseReservation_WhenLogAppendFails() throws IOException {
+        EmailWriteBehindBuffer closed = new EmailWriteBehindBuffer(jdbcTemplate, transactionTemplate, userCache,
+                eventPublisher, directory.resolve("closed.log"), false, 1_000_000, Duration.ofHours(1), 1, meterRegistry);
+        closed.afterSingletonsInstantiated();
+        closed.destroy();
+        UUID userId = UUID.randomUUID();
+        closed.reserve(userId, email("unlogged"));
+
+        assertThrows(UncheckedIOException.class, () -> closed.put(userId, email("unlogged")));
+
+        assertThat(closed.isReservedByOther(email("unlogged"), UUID.randomUUID())).isFalse();
+        assertThat(closed.isPending(userId)).isFalse();
+    }
+
+    @Test
+    void updateUserEmail_shouldRejectEmailPendingForAnotherUser() {
+        User user = createUser(LocalDate.of(1985, 7, 1));
+        User other = userService.createUser(new UserModificationRequest(email("other"), "illya", "zuiew",
+                LocalDate.of(1985, 7, 1), null, null));
+        userService.updateUserEmail(user.getId(), email("pending"));
+
+        assertThrows(DuplicateEmailException.class, () -> userService.updateUserEmail(other.getId(), email("PENDING")));
+        assertThrows(DuplicateEmailException.class, () -> userService.createUser(new UserModificationRequest(
+                email("pending"), "illya", "zuiew", LocalDate.of(1985, 7, 1), null, null)));
+
+        emailWriteBehindBuffer.flush();
+        assertThat(databaseEmail(user.getId())).isEqualTo(email("pending"));
+        assertThat(databaseEmail(other.getId())).isEqualTo(email("other"));
+    }
+
+    @Test
+    void updateUserEmail_shouldNotBufferEmail_WhenTransactionRollsBack() {
+        User user = createUser(LocalDate.of(1985, 8, 1));
+        User other = userService.createUser(new UserModificationRequest(email("other"), "illya", "zuiew",
+                LocalDate.of(1985, 8, 1), null, null));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.updateUserEmail(user.getId(), email("rolled-back"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(emailWriteBehindBuffer.isPending(user.getId())).isFalse();
+        assertThat(userService.findById(user.getId()).email()).isEqualTo(email("email"));
+        userService.updateUserEmail(other.getId(), email("rolled-back"));
+        assertThat(emailWriteBehindBuffer.isPending(other.getId())).isTrue();
+    }
+
+    @Test
+    void flush_shouldCountConflict_WhenEmailWasTakenByDirectWrite() {
+        User user = createUser(LocalDate.of(1985, 9, 1));
+        userService.updateUserEmail(user.getId(), email("contested"));
+        jdbcTemplate.update("""
+                INSERT INTO "user" ("id", "email", "first_name", "last_name", "birth_date")
+                VALUES (RANDOM_UUID(), ?, 'direct', 'write', DATE '1985-09-01')""", email("contested"));
+        double conflicts = meterRegistry.counter("user.email.write-behind.conflicts").count();
+
+        emailWriteBehindBuffer.flush();
+
+        assertThat(meterRegistry.counter("user.email.write-behind.conflicts").count()).isEqualTo(conflicts + 1);
+        assertThat(databaseEmail(user.getId())).isEqualTo(email("email"));
+        assertThat(emailWriteBehindBuffer.isPending(user.getId())).isFalse();
+    }
+
+    private long emailChangesRecorded(UUID userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"user_outbox\" WHERE \"user_id\" = ? AND \"type\" = 'EMAIL_UPDATED'", Long.class, userId);
+    }
+
+    private User createUser(LocalDate birthDate) {
+        return userService.createUser(new UserModificationRequest(email("email"), "illya", "zuiew",
+                birthDate, null, null));
+    }
+
+    private String databaseEmail(UUID userId) {
+        return jdbcTemplate.queryForObject("SELECT \"email\" FROM \"user\" WHERE \"id\" = ?", String.class, userId);
+    }
+
+    private String email(String name) {
+        return name + "." + emailSuffix + "@gmail.com";
+    }
+
+}